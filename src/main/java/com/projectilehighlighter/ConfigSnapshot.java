@@ -0,0 +1,81 @@
+package com.projectilehighlighter;
+
+import lombok.Getter;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable copy of the plugin config used on the event and render hot paths,
+ * so they don't go through the ConfigManager proxy per projectile per frame.
+ * Values are clamped to their config ranges and derived objects are built once.
+ * Rebuilt by the plugin on startup and whenever the config group changes.
+ */
+@Getter
+public final class ConfigSnapshot
+{
+    private final int version;
+
+    private final boolean enabled;
+    private final boolean debugMode;
+    private final boolean highlightAll;
+
+    private final ProjectileHighlighterConfig.OverlayStyle overlayStyle;
+    private final ProjectileHighlighterConfig.DefaultColorMode defaultColorMode;
+    private final Color defaultColor;
+    private final int outlineWidth;
+    private final BasicStroke outlineStroke;
+    private final int fillOpacity;
+    private final int debugTextSize;
+    private final int circleDiameter;
+    private final boolean markerGlow;
+
+    private final ProjectileHighlighterConfig.AttributionMode attributionMode;
+    private final long attributionBudgetNanos;
+    private final int maxHighlightDistance;
+    private final long overlayBudgetNanos;
+    private final int maxHighlights;
+    private final ProjectileHighlighterConfig.IngestionMode ingestionMode;
+
+    private ConfigSnapshot(ProjectileHighlighterConfig config, int version)
+    {
+        this.version = version;
+
+        this.enabled = config.enabled();
+        this.debugMode = config.debugMode();
+        this.highlightAll = config.highlightAll();
+
+        this.overlayStyle = config.overlayStyle();
+        this.defaultColorMode = config.defaultColorMode();
+        this.defaultColor = config.defaultColor();
+        this.outlineWidth = clamp(config.outlineWidth(), 1, 10);
+        this.outlineStroke = new BasicStroke(outlineWidth);
+        this.fillOpacity = clamp(config.fillOpacity(), 0, 255);
+        this.debugTextSize = clamp(config.debugTextSize(), 8, 32);
+        this.circleDiameter = clamp(config.circleDiameter(), 10, 80);
+        this.markerGlow = config.markerGlow();
+
+        this.attributionMode = config.attributionMode();
+        this.attributionBudgetNanos = TimeUnit.MICROSECONDS.toNanos(clamp(config.attributionBudget(), 50, 5000));
+        this.maxHighlightDistance = clamp(config.maxHighlightDistance(), 0, 64);
+        this.overlayBudgetNanos = TimeUnit.MICROSECONDS.toNanos(clamp(config.overlayFrameBudget(), 0, 20000));
+        this.maxHighlights = clamp(config.maxHighlights(), 0, 500);
+        this.ingestionMode = config.ingestionMode();
+    }
+
+    /**
+     * Read every value from the config proxy once.
+     * @param version increasing number identifying this snapshot, so caches built
+     *                from an older snapshot can tell they are stale
+     */
+    public static ConfigSnapshot of(ProjectileHighlighterConfig config, int version)
+    {
+        return new ConfigSnapshot(config, version);
+    }
+
+    private static int clamp(int value, int min, int max)
+    {
+        return Math.max(min, Math.min(max, value));
+    }
+}
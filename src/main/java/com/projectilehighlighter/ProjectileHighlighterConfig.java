@@ -165,6 +165,191 @@ public interface ProjectileHighlighterConfig extends Config
 		return 20;
 	}
 
+	@ConfigItem(
+		keyName = "markerGlow",
+		name = "Marker Glow",
+		description = "Draw a soft glow around outline and filled markers",
+		section = overlaySection,
+		position = 7
+	)
+	default boolean markerGlow()
+	{
+		return false;
+	}
+
+	// ==================== Performance Section ====================
+	@ConfigSection(
+		name = "Performance",
+		description = "Trade sidebar detail for lower client-thread cost in busy scenes",
+		position = 2
+	)
+	String performanceSection = "performance";
+
+	@ConfigItem(
+		keyName = "attributionMode",
+		name = "Source Attribution",
+		description = "How the recent list works out which actor fired a projectile."
+			+ " Off skips attribution, Direct uses only the source actor reported by the game,"
+			+ " Full also falls back to the closest actor to the spawn point",
+		section = performanceSection,
+		position = 0
+	)
+	default AttributionMode attributionMode()
+	{
+		return AttributionMode.FULL;
+	}
+
+	@Range(
+		min = 50,
+		max = 5000
+	)
+	@ConfigItem(
+		keyName = "attributionBudget",
+		name = "Attribution Budget (µs)",
+		description = "Maximum time per client tick spent attributing sources for the recent list, in microseconds",
+		section = performanceSection,
+		position = 1
+	)
+	default int attributionBudget()
+	{
+		return 500;
+	}
+
+	@Range(
+		min = 0,
+		max = 64
+	)
+	@ConfigItem(
+		keyName = "maxHighlightDistance",
+		name = "Max Highlight Distance",
+		description = "Only highlight projectiles within this many tiles of you (0 for no limit)",
+		section = performanceSection,
+		position = 2
+	)
+	default int maxHighlightDistance()
+	{
+		return 0;
+	}
+
+	@Range(
+		min = 0,
+		max = 20000
+	)
+	@ConfigItem(
+		keyName = "overlayFrameBudget",
+		name = "Overlay Budget (µs)",
+		description = "Overlay render time per frame, in microseconds, above which quality steps down"
+			+ " (no antialiasing, then outlines only without labels, then fewer projectiles). 0 disables",
+		section = performanceSection,
+		position = 3
+	)
+	default int overlayFrameBudget()
+	{
+		return 2000;
+	}
+
+	@Range(
+		min = 0,
+		max = 500
+	)
+	@ConfigItem(
+		keyName = "maxHighlights",
+		name = "Max Highlights",
+		description = "Most projectiles highlighted at once (0 for no limit). Projectiles aimed at you come first,"
+			+ " then the nearest, then those in groups higher in the list",
+		section = performanceSection,
+		position = 4
+	)
+	default int maxHighlights()
+	{
+		return 0;
+	}
+
+	@ConfigItem(
+		keyName = "ingestionMode",
+		name = "Projectile Ingestion",
+		description = "How new projectiles are found. Event handles every projectile movement event,"
+			+ " Poll scans the client's projectile list once per client tick."
+			+ " With debug mode on, the cost of the current mode is written to the log",
+		section = performanceSection,
+		position = 5
+	)
+	default IngestionMode ingestionMode()
+	{
+		return IngestionMode.EVENT;
+	}
+
+	@ConfigItem(
+		keyName = "storageFormat",
+		name = "Group Storage Format",
+		description = "How the group library is saved on disk. Binary is smaller and faster to load for large libraries;"
+			+ " import and export always use JSON",
+		section = performanceSection,
+		position = 6
+	)
+	default StorageFormat storageFormat()
+	{
+		return StorageFormat.JSON;
+	}
+
+    enum AttributionMode
+    {
+        OFF("Off"),
+        DIRECT("Direct Source Only"),
+        FULL("Full (Proximity Fallback)");
+
+        private final String name;
+
+        AttributionMode(String name)
+        {
+            this.name = name;
+        }
+
+        @Override
+        public String toString()
+        {
+            return name;
+        }
+    }
+
+    enum IngestionMode
+    {
+        EVENT("Event"),
+        POLL("Poll");
+
+        private final String name;
+
+        IngestionMode(String name)
+        {
+            this.name = name;
+        }
+
+        @Override
+        public String toString()
+        {
+            return name;
+        }
+    }
+
+    enum StorageFormat
+    {
+        JSON("JSON"),
+        BINARY("Binary");
+
+        private final String name;
+
+        StorageFormat(String name)
+        {
+            this.name = name;
+        }
+
+        @Override
+        public String toString()
+        {
+            return name;
+        }
+    }
+
     enum DefaultColorMode
     {
         FIXED("Fixed"),
@@ -1,11 +1,16 @@
 package com.projectilehighlighter;
 
-import com.projectilehighlighter.util.GroupStorage;
-import lombok.Setter;
+import com.projectilehighlighter.util.BoundedPrioritySelector;
+import com.projectilehighlighter.util.DebugLabelCache;
+import com.projectilehighlighter.util.MarkerSpriteCache;
+import com.projectilehighlighter.util.OverlayQualityGovernor;
+import com.projectilehighlighter.util.ProjectileCuller;
+import com.projectilehighlighter.util.RenderList;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import net.runelite.api.Perspective;
+import net.runelite.api.Player;
 import net.runelite.api.Point;
-import net.runelite.api.Projectile;
 import net.runelite.api.coords.LocalPoint;
 import net.runelite.client.ui.overlay.Overlay;
 import net.runelite.client.ui.overlay.OverlayLayer;
@@ -13,31 +18,69 @@ import net.runelite.client.ui.overlay.OverlayPosition;
 import net.runelite.client.ui.overlay.OverlayPriority;
 
 import javax.inject.Inject;
-import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Dimension;
-import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.Polygon;
-import java.awt.geom.Ellipse2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 
+@Slf4j
 public class ProjectileHighlighterOverlay extends Overlay
 {
+    private static final int CAMERA_STATE_SIZE = 10;
+    // Most projectiles drawn at the lowest quality tier
+    private static final int MINIMAL_DRAW_CAP = 20;
+    // Field widths of the priority key
+    private static final long MAX_PRIORITY_DISTANCE = (1L << 40) - 1;
+    private static final long UNGROUPED_PRIORITY = (1L << 20) - 1;
 
     private final Client client;
     private final ProjectileHighlighterPlugin plugin;
-    private final ProjectileHighlighterConfig config;
 
-    @Setter
-    private GroupStorage groupStorage;
+    // Pre-rendered circle markers; render runs on the client thread only
+    private final MarkerSpriteCache spriteCache = new MarkerSpriteCache();
+
+    // Pre-projection rejection of projectiles that can't be on screen
+    private final ProjectileCuller culler = new ProjectileCuller();
+
+    // Picks the highest priority projectiles when more are visible than may be drawn
+    private final BoundedPrioritySelector selector = new BoundedPrioritySelector();
+
+    // Per-frame draw batches, one per paint flyweight, reused across frames
+    private final Map<ProjectileHighlighterPlugin.TrackedProjectileInfo, Batch> batches = new IdentityHashMap<>();
+    private final List<Batch> activeBatches = new ArrayList<>();
+    private int batchesConfigVersion = -1;
+
+    // What the current batches were projected under; while unchanged, frames redraw them as-is
+    private final int[] projectedCamera = new int[CAMERA_STATE_SIZE];
+    private final int[] currentCamera = new int[CAMERA_STATE_SIZE];
+    private RenderList projectedList;
+    private int projectedSequence = -1;
+    private int projectedConfigVersion = -1;
+    private OverlayQualityGovernor.Tier projectedTier;
+
+    // Steps quality down when the overlay runs over its frame budget
+    private final OverlayQualityGovernor quality = new OverlayQualityGovernor();
+
+    // Debug labels collected during projection, drawn after every marker from pre-rendered images
+    private final DebugLabelCache labelCache = new DebugLabelCache();
+    private int[] labelIds = new int[64];
+    private int[] labelXs = new int[64];
+    private int[] labelYs = new int[64];
+    private int labelCount;
 
     @Inject
-    public ProjectileHighlighterOverlay(Client client, ProjectileHighlighterPlugin plugin, ProjectileHighlighterConfig config)
+    public ProjectileHighlighterOverlay(Client client, ProjectileHighlighterPlugin plugin)
     {
         this.client = client;
         this.plugin = plugin;
-        this.config = config;
 
         setPosition(OverlayPosition.DYNAMIC);
         setLayer(OverlayLayer.ABOVE_WIDGETS);
@@ -47,162 +90,348 @@ public class ProjectileHighlighterOverlay extends Overlay
     @Override
     public Dimension render(Graphics2D graphics)
     {
-        if (!config.enabled())
+        ConfigSnapshot settings = plugin.getConfigSnapshot();
+        if (settings == null || !settings.isEnabled())
         {
             return null;
         }
 
-        Map<Projectile, ProjectileHighlighterPlugin.TrackedProjectileInfo> trackedProjectiles = plugin.getTrackedProjectiles();
+        long frameStart = System.nanoTime();
+        OverlayQualityGovernor.Tier tier = quality.getTier();
+
+        // The plugin rebuilds the render list once per client cycle; at high FPS reuse the last projection
+        RenderList list = plugin.getRenderList();
+        if (!isProjectionCurrent(list, settings, tier))
+        {
+            beginFrame(settings);
+            int limit = settings.getMaxHighlights() > 0 ? settings.getMaxHighlights() : Integer.MAX_VALUE;
+            if (tier == OverlayQualityGovernor.Tier.MINIMAL)
+            {
+                limit = Math.min(limit, MINIMAL_DRAW_CAP);
+            }
+            projectRenderList(list, settings, tier, limit);
+        }
+
+        Object antialiasing = graphics.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
+        if (!tier.isAntialiased())
+        {
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+        }
 
-        for (Map.Entry<Projectile, ProjectileHighlighterPlugin.TrackedProjectileInfo> entry : trackedProjectiles.entrySet())
+        // Then draw each group with a single set of graphics state changes
+        for (Batch batch : activeBatches)
         {
-            Projectile projectile = entry.getKey();
-            ProjectileHighlighterPlugin.TrackedProjectileInfo info = entry.getValue();
+            drawBatch(graphics, batch, settings, tier);
+        }
 
-            // Skip expired projectiles
-            if (projectile.getRemainingCycles() <= 0)
+        // Draw projectile IDs and the current quality tier in debug mode
+        if (settings.isDebugMode())
+        {
+            if (labelCount > 0)
             {
-                continue;
+                renderDebugText(graphics, settings.getCircleDiameter(), settings.getDebugTextSize());
             }
+            renderQualityTier(graphics, tier);
+        }
 
-            renderProjectile(graphics, projectile, info);
+        if (!tier.isAntialiased())
+        {
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                antialiasing != null ? antialiasing : RenderingHints.VALUE_ANTIALIAS_DEFAULT);
+        }
+
+        if (quality.record(System.nanoTime() - frameStart, settings.getOverlayBudgetNanos()))
+        {
+            log.debug("Overlay quality now {} (average frame {} µs)", quality.getTier(), (long) quality.getAverageNanos() / 1000);
         }
 
         return null;
     }
 
-    private void renderProjectile(Graphics2D graphics, Projectile projectile, ProjectileHighlighterPlugin.TrackedProjectileInfo info)
+    /**
+     * Project the render list into batches, grouping by paint flyweight.
+     * When there are more visible projectiles than the limit, only the highest
+     * priority ones are kept: those targeting the local player, then the nearest,
+     * then the ones whose group comes first.
+     */
+    private void projectRenderList(RenderList list, ConfigSnapshot settings, OverlayQualityGovernor.Tier tier, int limit)
     {
-        int x = (int) projectile.getX();
-        int y = (int) projectile.getY();
-        int z = projectile.getHeight();
-
-        LocalPoint projectilePoint = new LocalPoint(x, y);
+        if (limit >= list.size())
+        {
+            for (int i = 0; i < list.size(); i++)
+            {
+                // Skip ones that can't be on screen before paying for projection
+                if (culler.isVisible(list.getX(i), list.getY(i), list.getFloor(i)))
+                {
+                    projectProjectile(list, i, settings, tier);
+                }
+            }
+            return;
+        }
 
-        // Get screen point from 3D coordinates
-        Point screenPoint = Perspective.localToCanvas(client, projectilePoint, projectile.getFloor(), z);
+        Player localPlayer = client.getLocalPlayer();
+        LocalPoint playerPoint = localPlayer != null ? localPlayer.getLocalLocation() : null;
 
-        if (screenPoint == null)
+        selector.reset(limit);
+        for (int i = 0; i < list.size(); i++)
         {
-            return;
+            if (culler.isVisible(list.getX(i), list.getY(i), list.getFloor(i)))
+            {
+                selector.offer(i, priorityKey(list, i, playerPoint));
+            }
         }
 
-        Color color = info.getColor();
-        ProjectileHighlighterConfig.OverlayStyle style = info.getOverlayStyle();
-		int size = Math.max(10, Math.min(80, config.circleDiameter()));
+        for (int i = 0; i < selector.size(); i++)
+        {
+            projectProjectile(list, selector.get(i), settings, tier);
+        }
+    }
 
-        // Set up graphics
-        graphics.setStroke(new BasicStroke(config.outlineWidth()));
+    /**
+     * Lower is more important. Packs, from the top bit down: whether the projectile
+     * is aimed somewhere other than the local player, its squared distance to the
+     * player, and the position of its group (ungrouped highlight-all projectiles last).
+     */
+    private static long priorityKey(RenderList list, int index, LocalPoint playerPoint)
+    {
+        long notTargetingMe = list.isTargetingPlayer(index) ? 0 : 1;
 
-        switch (style)
+        long distance = 0;
+        if (playerPoint != null)
         {
-            case HULL:
-            case OUTLINE:
-                renderOutline(graphics, screenPoint, size, color, style == ProjectileHighlighterConfig.OverlayStyle.HULL);
-                break;
-            case FILLED:
-                renderFilled(graphics, screenPoint, size, color);
-                break;
-            case TILE:
-                renderTile(graphics, projectile, color);
-                break;
+            long dx = (long) list.getX(index) - playerPoint.getX();
+            long dy = (long) list.getY(index) - playerPoint.getY();
+            distance = Math.min(dx * dx + dy * dy, MAX_PRIORITY_DISTANCE);
         }
 
-        // Draw projectile ID in debug mode
-        if (config.debugMode())
+        long group = Math.min(list.getGroupRank(index), UNGROUPED_PRIORITY);
+
+        return notTargetingMe << 62 | distance << 20 | group;
+    }
+
+    /**
+     * Whether the batches built by the last projection still hold: same render list,
+     * camera, quality tier and config. Records the current state as the projected one
+     * when they don't.
+     */
+    private boolean isProjectionCurrent(RenderList list, ConfigSnapshot settings, OverlayQualityGovernor.Tier tier)
+    {
+        currentCamera[0] = client.getCameraX();
+        currentCamera[1] = client.getCameraY();
+        currentCamera[2] = client.getCameraZ();
+        currentCamera[3] = client.getCameraPitch();
+        currentCamera[4] = client.getCameraYaw();
+        currentCamera[5] = client.getScale();
+        currentCamera[6] = client.getViewportXOffset();
+        currentCamera[7] = client.getViewportYOffset();
+        currentCamera[8] = client.getViewportWidth();
+        currentCamera[9] = client.getViewportHeight();
+
+        if (list == projectedList
+            && list.getSequence() == projectedSequence
+            && settings.getVersion() == projectedConfigVersion
+            && tier == projectedTier
+            && Arrays.equals(currentCamera, projectedCamera))
         {
-            renderDebugText(graphics, screenPoint, projectile.getId(), size);
+            return true;
         }
+
+        projectedList = list;
+        projectedSequence = list.getSequence();
+        projectedConfigVersion = settings.getVersion();
+        projectedTier = tier;
+        System.arraycopy(currentCamera, 0, projectedCamera, 0, CAMERA_STATE_SIZE);
+        return false;
     }
 
-	private void renderDebugText(Graphics2D graphics, Point point, int projectileId, int size)
-	{
-		String idText = String.valueOf(projectileId);
-		Font originalFont = graphics.getFont();
-		int textSize = config.debugTextSize();
-		if (textSize < 8)
-		{
-			textSize = 8;
-		}
-		else if (textSize > 32)
-		{
-			textSize = 32;
-		}
-		graphics.setFont(originalFont.deriveFont(Font.BOLD, (float) textSize));
-
-        int textWidth = graphics.getFontMetrics().stringWidth(idText);
-        int textX = point.getX() - textWidth / 2;
-        int textY = point.getY() - size - 5;
+    private void beginFrame(ConfigSnapshot settings)
+    {
+        // Flyweights are rebuilt on config change, so batches keyed by the old ones are dead
+        if (batchesConfigVersion != settings.getVersion())
+        {
+            batches.clear();
+            batchesConfigVersion = settings.getVersion();
+        }
 
-        // Draw text shadow for visibility
-        graphics.setColor(Color.BLACK);
-        graphics.drawString(idText, textX + 1, textY + 1);
-        graphics.setColor(Color.WHITE);
-        graphics.drawString(idText, textX, textY);
+        for (Batch batch : activeBatches)
+        {
+            batch.reset();
+        }
+        activeBatches.clear();
+        labelCount = 0;
 
-        graphics.setFont(originalFont);
+        // A marker can reach past its projected point by its radius plus the glow
+        culler.prepare(client, settings.getMaxHighlightDistance(), settings.getCircleDiameter() + settings.getOutlineWidth() + 8);
     }
 
-    private void renderOutline(Graphics2D graphics, Point point, int size, Color color, boolean fill)
+    private void projectProjectile(RenderList list, int index, ConfigSnapshot settings, OverlayQualityGovernor.Tier tier)
     {
-        int halfSize = size / 2;
-        int x = point.getX() - halfSize;
-        int y = point.getY() - halfSize;
+        ProjectileHighlighterPlugin.TrackedProjectileInfo info = list.getPaint(index);
+        LocalPoint projectilePoint = new LocalPoint(list.getX(index), list.getY(index));
 
-        Ellipse2D.Double ellipse = new Ellipse2D.Double(x, y, size, size);
+        // Get screen point from 3D coordinates
+        Point screenPoint = Perspective.localToCanvas(client, projectilePoint, list.getFloor(index), list.getHeight(index));
 
-        if (fill)
+        if (screenPoint == null)
         {
-            // Use the alpha from the color itself (set by the entry)
-            Color fillColor = new Color(color.getRed(), color.getGreen(), color.getBlue(),
-                Math.min(color.getAlpha(), config.fillOpacity()));
-            graphics.setColor(fillColor);
-            graphics.fill(ellipse);
+            return;
         }
 
-        // Draw outline with full opacity
-        graphics.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), 255));
-        graphics.draw(ellipse);
+        Batch batch = batchFor(info);
+        if (info.getOverlayStyle() == ProjectileHighlighterConfig.OverlayStyle.TILE)
+        {
+            Polygon tilePoly = Perspective.getCanvasTilePoly(client, projectilePoint);
+            if (tilePoly != null)
+            {
+                batch.addTile(tilePoly);
+            }
+        }
+        else
+        {
+            batch.addMarker(screenPoint.getX(), screenPoint.getY());
+        }
+
+        // Lower tiers don't draw labels, so don't collect them either
+        if (settings.isDebugMode() && tier.isLabeled())
+        {
+            addLabel(list.getProjectileId(index), screenPoint.getX(), screenPoint.getY());
+        }
+    }
+
+    private Batch batchFor(ProjectileHighlighterPlugin.TrackedProjectileInfo info)
+    {
+        Batch batch = batches.get(info);
+        if (batch == null)
+        {
+            batch = new Batch(info);
+            batches.put(info, batch);
+        }
+
+        if (!batch.active)
+        {
+            batch.active = true;
+            activeBatches.add(batch);
+        }
+        return batch;
     }
 
-    private void renderFilled(Graphics2D graphics, Point point, int size, Color color)
+    private void drawBatch(Graphics2D graphics, Batch batch, ConfigSnapshot settings, OverlayQualityGovernor.Tier tier)
     {
-        int halfSize = size / 2;
-        int x = point.getX() - halfSize;
-        int y = point.getY() - halfSize;
+        ProjectileHighlighterPlugin.TrackedProjectileInfo info = batch.info;
 
-        Ellipse2D.Double ellipse = new Ellipse2D.Double(x, y, size, size);
+        if (batch.hasTiles)
+        {
+            // One fill and one stroke for every tile of this color
+            graphics.setStroke(info.getStroke());
+            if (tier.isFilled())
+            {
+                graphics.setColor(info.getFillColor());
+                graphics.fill(batch.tiles);
+            }
+            graphics.setColor(info.getOutlineColor());
+            graphics.draw(batch.tiles);
+        }
 
-        graphics.setColor(color);
-        graphics.fill(ellipse);
+        if (batch.markerCount > 0)
+        {
+            int size = settings.getCircleDiameter();
+            ProjectileHighlighterConfig.OverlayStyle style = tier.isFilled() ? info.getOverlayStyle() : ProjectileHighlighterConfig.OverlayStyle.OUTLINE;
+            MarkerSpriteCache.Sprite sprite = spriteCache.get(graphics.getDeviceConfiguration(), style, info.getArgb(),
+                settings.getFillOpacity(), size, settings.getOutlineWidth(), settings.isMarkerGlow());
 
-        // Draw border with full opacity
-        graphics.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), 255));
-        graphics.draw(ellipse);
+            int offset = size / 2 + sprite.getPadding();
+            for (int i = 0; i < batch.markerCount; i++)
+            {
+                graphics.drawImage(sprite.getImage(), batch.markerXs[i] - offset, batch.markerYs[i] - offset, null);
+            }
+        }
     }
 
-    private void renderTile(Graphics2D graphics, Projectile projectile, Color color)
+    private void addLabel(int projectileId, int x, int y)
     {
-        int x = (int) projectile.getX();
-        int y = (int) projectile.getY();
+        if (labelCount == labelIds.length)
+        {
+            int capacity = labelCount * 2;
+            labelIds = Arrays.copyOf(labelIds, capacity);
+            labelXs = Arrays.copyOf(labelXs, capacity);
+            labelYs = Arrays.copyOf(labelYs, capacity);
+        }
+
+        labelIds[labelCount] = projectileId;
+        labelXs[labelCount] = x;
+        labelYs[labelCount] = y;
+        labelCount++;
+    }
 
-        LocalPoint projectilePoint = new LocalPoint(x, y);
+    private void renderDebugText(Graphics2D graphics, int size, int textSize)
+    {
+        for (int i = 0; i < labelCount; i++)
+        {
+            BufferedImage label = labelCache.get(graphics, labelIds[i], textSize);
+            int textX = labelXs[i] - (label.getWidth() - 1) / 2;
+            int textY = labelYs[i] - size - 5;
+            graphics.drawImage(label, textX, textY - labelCache.getAscent(), null);
+        }
+    }
 
-        Polygon tilePoly = Perspective.getCanvasTilePoly(client, projectilePoint);
+    private void renderQualityTier(Graphics2D graphics, OverlayQualityGovernor.Tier tier)
+    {
+        String text = "Overlay quality: " + tier + " (" + (long) quality.getAverageNanos() / 1000 + " µs)";
+        int x = client.getViewportXOffset() + 5;
+        int y = client.getViewportYOffset() + 15;
+
+        // Draw text shadow for visibility
+        graphics.setColor(Color.BLACK);
+        graphics.drawString(text, x + 1, y + 1);
+        graphics.setColor(Color.WHITE);
+        graphics.drawString(text, x, y);
+    }
 
-        if (tilePoly == null)
+    /**
+     * Everything drawn with one paint flyweight in the current frame: tile polygons
+     * merged into a single path, and the screen positions of circle markers.
+     */
+    private static final class Batch
+    {
+        private final ProjectileHighlighterPlugin.TrackedProjectileInfo info;
+        private final Path2D.Float tiles = new Path2D.Float(Path2D.WIND_NON_ZERO);
+        private boolean hasTiles;
+        private int[] markerXs = new int[16];
+        private int[] markerYs = new int[16];
+        private int markerCount;
+        // Whether the batch is listed in activeBatches this frame
+        private boolean active;
+
+        private Batch(ProjectileHighlighterPlugin.TrackedProjectileInfo info)
         {
-            return;
+            this.info = info;
+        }
+
+        private void addTile(Polygon tilePoly)
+        {
+            tiles.append(tilePoly, false);
+            hasTiles = true;
         }
 
-        // Fill the tile
-        Color fillColor = new Color(color.getRed(), color.getGreen(), color.getBlue(),
-            Math.min(color.getAlpha(), config.fillOpacity()));
-        graphics.setColor(fillColor);
-        graphics.fill(tilePoly);
+        private void addMarker(int x, int y)
+        {
+            if (markerCount == markerXs.length)
+            {
+                markerXs = Arrays.copyOf(markerXs, markerCount * 2);
+                markerYs = Arrays.copyOf(markerYs, markerCount * 2);
+            }
+
+            markerXs[markerCount] = x;
+            markerYs[markerCount] = y;
+            markerCount++;
+        }
 
-        // Draw tile outline with full opacity
-        graphics.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), 255));
-        graphics.draw(tilePoly);
+        private void reset()
+        {
+            tiles.reset();
+            hasTiles = false;
+            markerCount = 0;
+            active = false;
+        }
     }
 }
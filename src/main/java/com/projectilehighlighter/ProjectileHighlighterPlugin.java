@@ -2,12 +2,17 @@ package com.projectilehighlighter;
 
 import com.google.gson.Gson;
 import com.google.inject.Provides;
-import com.projectilehighlighter.model.ProjectileEntry;
-import com.projectilehighlighter.model.ProjectileGroup;
 import com.projectilehighlighter.ui.ProjectileHighlighterPanel;
+import com.projectilehighlighter.util.ActorSpatialIndex;
+import com.projectilehighlighter.util.GroupSnapshot;
 import com.projectilehighlighter.util.GroupStorage;
+import com.projectilehighlighter.util.HiddenSightingLog;
+import com.projectilehighlighter.util.ProjectileExpiryQueue;
 import com.projectilehighlighter.util.ProjectileColorUtil;
+import com.projectilehighlighter.util.ProjectileLookup;
 import com.projectilehighlighter.util.ProjectileNames;
+import com.projectilehighlighter.util.ProjectileRecordStore;
+import com.projectilehighlighter.util.RenderList;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Actor;
@@ -17,8 +22,10 @@ import net.runelite.api.Player;
 import net.runelite.api.Projectile;
 import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.ClientTick;
 import net.runelite.api.events.GameTick;
 import net.runelite.api.events.ProjectileMoved;
+import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.events.ConfigChanged;
@@ -32,13 +39,16 @@ import net.runelite.client.ui.overlay.OverlayManager;
 import net.runelite.client.util.ImageUtil;
 
 import javax.inject.Inject;
+import javax.swing.SwingUtilities;
+import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.regex.Pattern;
 
 @Slf4j
 @PluginDescriptor(
@@ -50,10 +60,17 @@ public class ProjectileHighlighterPlugin extends Plugin
 {
     private static final int WORLD_DISTANCE_BIAS_TILES = 1;
     private static final int LOCAL_DISTANCE_BIAS_UNITS = 128;
+    private static final Pattern TAG_PATTERN = Pattern.compile("<[^>]*>");
+    private static final int MAX_PENDING_ATTRIBUTIONS = 256;
+    private static final int MAX_HIDDEN_SIGHTINGS = 256;
+    private static final int INGESTION_REPORT_TICKS = 100;
 
     @Inject
     private Client client;
 
+    @Inject
+    private ClientThread clientThread;
+
     @Inject
     private ProjectileHighlighterConfig config;
 
@@ -72,6 +89,18 @@ public class ProjectileHighlighterPlugin extends Plugin
     @Inject
     private ColorPickerManager colorPickerManager;
 
+    @Inject
+    private ScheduledExecutorService executor;
+
+    // Config values for the hot paths, rebuilt on config change
+    @Getter
+    private volatile ConfigSnapshot configSnapshot;
+    private int configVersion;
+
+    // Interned paint flyweights for the current config version (client thread only)
+    private final Map<Long, TrackedProjectileInfo> paintPool = new HashMap<>();
+    private int paintPoolVersion = -1;
+
     // Sidebar panel
     private ProjectileHighlighterPanel panel;
     private NavigationButton navButton;
@@ -79,27 +108,49 @@ public class ProjectileHighlighterPlugin extends Plugin
     @Getter
     private GroupStorage groupStorage;
 
-    // Active tracking from enabled groups
+    // One record per live projectile: processed flag and tracked info from enabled groups
+    @Getter
+    private final ProjectileRecordStore projectileRecords = new ProjectileRecordStore();
+
+    // Double-buffered render list: rebuilt into the back on every client tick, then swapped
+    // to the front, which is all the overlay reads
     @Getter
-    private final Map<Projectile, TrackedProjectileInfo> trackedProjectiles = new HashMap<>();
+    private volatile RenderList renderList = new RenderList();
+    private RenderList backRenderList = new RenderList();
+    private int renderListSequence;
 
-    // Track projectiles we've already processed this instance (for debug + recent list)
-    private final Set<Projectile> processedProjectiles = new HashSet<>();
+    // Debug-mode ingestion timing, reported every INGESTION_REPORT_TICKS game ticks
+    private long ingestionNanos;
+    private int ingestionTicks;
+
+    // Processed projectiles ordered by end cycle, so expiry only visits the ones that are due
+    private final ProjectileExpiryQueue expiryQueue = new ProjectileExpiryQueue();
+
+    // Nearest-actor indexes for source attribution, rebuilt lazily once per tick
+    private final ActorSpatialIndex npcIndex = new ActorSpatialIndex();
+    private final ActorSpatialIndex playerIndex = new ActorSpatialIndex();
+    private int actorIndexTick = -1;
+
+    // New projectiles waiting for source attribution before they reach the recent list
+    private final Deque<Projectile> pendingAttribution = new ArrayDeque<>();
+
+    // Cheap summary of projectiles seen while the sidebar panel is hidden
+    private final HiddenSightingLog hiddenSightings = new HiddenSightingLog(MAX_HIDDEN_SIGHTINGS);
 
     @Override
     protected void startUp()
     {
         log.info("Projectile Highlighter started");
 
-        // Initialize projectile names utility
-        ProjectileNames.initialize();
+        rebuildConfigSnapshot();
 
-        // Initialize group storage
-        groupStorage = new GroupStorage(gson);
+        // Group storage starts empty; the library is read on the executor below
+        groupStorage = new GroupStorage(gson, config.storageFormat());
         groupStorage.setOnGroupsChangedCallback(this::onGroupsChanged);
 
         // Create sidebar panel
         panel = new ProjectileHighlighterPanel(groupStorage, config, colorPickerManager);
+        panel.setOnActivatedCallback(() -> clientThread.invokeLater(this::materializeHiddenSightings));
 
         // Create navigation button with icon
         navButton = NavigationButton.builder()
@@ -112,8 +163,35 @@ public class ProjectileHighlighterPlugin extends Plugin
         clientToolbar.addNavigation(navButton);
         overlayManager.add(overlay);
 
-        // Pass group storage to overlay
-        overlay.setGroupStorage(groupStorage);
+        // Name reflection and the group file read stay off the client thread. The overlay
+        // draws nothing from the empty lookup until loading swaps in the real snapshot
+        GroupStorage storage = groupStorage;
+        ProjectileHighlighterPanel loadingPanel = panel;
+        executor.execute(() -> {
+            try
+            {
+                ProjectileNames.initialize();
+            }
+            catch (RuntimeException e)
+            {
+                // Only costs the display names; the groups still load below
+                log.warn("Failed to read projectile names", e);
+            }
+
+            try
+            {
+                storage.loadGroups();
+            }
+            catch (RuntimeException e)
+            {
+                log.error("Failed to load projectile groups", e);
+            }
+            finally
+            {
+                // Unlock the panel either way, or a failed load would leave it disabled
+                SwingUtilities.invokeLater(loadingPanel::onGroupsLoaded);
+            }
+        });
     }
 
     @Override
@@ -122,8 +200,25 @@ public class ProjectileHighlighterPlugin extends Plugin
         log.info("Projectile Highlighter stopped");
         clientToolbar.removeNavigation(navButton);
         overlayManager.remove(overlay);
-        trackedProjectiles.clear();
-        processedProjectiles.clear();
+
+        // Flush any group edits still waiting on the background writer
+        if (groupStorage != null)
+        {
+            groupStorage.close();
+        }
+        projectileRecords.clear();
+        expiryQueue.clear();
+        pendingAttribution.clear();
+        hiddenSightings.clear();
+        paintPool.clear();
+        npcIndex.clear();
+        playerIndex.clear();
+        actorIndexTick = -1;
+    }
+
+    private void rebuildConfigSnapshot()
+    {
+        configSnapshot = ConfigSnapshot.of(config, ++configVersion);
     }
 
     @Provides
@@ -158,36 +253,234 @@ public class ProjectileHighlighterPlugin extends Plugin
     @Subscribe
     public void onProjectileMoved(ProjectileMoved event)
     {
-        if (!config.enabled())
+        ConfigSnapshot settings = configSnapshot;
+        if (!settings.isEnabled())
         {
             return;
         }
 
-        Projectile projectile = event.getProjectile();
-        int projectileId = projectile.getId();
+        // In poll mode spawns are found by scanning the projectile list once per client tick
+        if (settings.getIngestionMode() != ProjectileHighlighterConfig.IngestionMode.EVENT)
+        {
+            return;
+        }
+
+        long start = settings.isDebugMode() ? System.nanoTime() : 0;
 
         // Process each projectile instance only once (for debug messages and recent list)
-        if (!processedProjectiles.contains(projectile))
+        Projectile projectile = event.getProjectile();
+        ProjectileRecordStore.Record record = projectileRecords.getOrCreate(projectile);
+        if (!record.isProcessed())
         {
-            processedProjectiles.add(projectile);
+            processSpawn(record, settings);
+        }
+
+        if (settings.isDebugMode())
+        {
+            ingestionNanos += System.nanoTime() - start;
+        }
+    }
 
-            // Feed to panel for recent list
-            if (panel != null)
+    @Subscribe
+    public void onClientTick(ClientTick event)
+    {
+        ConfigSnapshot settings = configSnapshot;
+        if (settings.isEnabled() && settings.getIngestionMode() == ProjectileHighlighterConfig.IngestionMode.POLL)
+        {
+            long start = settings.isDebugMode() ? System.nanoTime() : 0;
+            pollProjectiles(settings);
+            if (settings.isDebugMode())
             {
-                panel.addRecentProjectile(projectileId, resolveSourceName(projectile));
+                ingestionNanos += System.nanoTime() - start;
             }
         }
 
-        // Check if we should track this projectile for rendering
-        if (!trackedProjectiles.containsKey(projectile))
+        // Clean up expired projectiles
+        expiryQueue.drainDue(client.getGameCycle(), projectileRecords::remove);
+
+        buildRenderList();
+
+        drainAttributionQueue();
+    }
+
+    /**
+     * Copy this cycle's tracked projectiles into the back render list and swap it to the front.
+     * Positions, paint and priority inputs are resolved here once per cycle, not per frame.
+     */
+    private void buildRenderList()
+    {
+        RenderList list = backRenderList;
+        list.begin(++renderListSequence);
+
+        Player localPlayer = client.getLocalPlayer();
+        ProjectileLookup lookup = groupStorage != null ? groupStorage.getLookup() : ProjectileLookup.EMPTY;
+        for (int i = 0; i < projectileRecords.size(); i++)
         {
-            TrackedProjectileInfo info = getTrackingInfo(projectileId);
-            if (info != null)
+            ProjectileRecordStore.Record record = projectileRecords.get(i);
+            TrackedProjectileInfo info = record.getInfo();
+            if (info == null)
             {
-                trackedProjectiles.put(projectile, info);
-                log.debug("Tracking projectile ID: {} with color: {}", projectileId, info.getColor());
+                continue;
             }
+
+            Projectile projectile = record.getProjectile();
+            int slot = lookup.indexOf(projectile.getId());
+            list.add((int) projectile.getX(), (int) projectile.getY(), projectile.getHeight(), projectile.getFloor(),
+                projectile.getId(), info,
+                slot >= 0 ? lookup.getGroupIndex(slot) : RenderList.UNGROUPED,
+                localPlayer != null && projectile.getTargetActor() == localPlayer);
         }
+
+        backRenderList = renderList;
+        renderList = list;
+    }
+
+    /**
+     * Poll-mode ingestion: walk the client's projectile list once, marking every live
+     * projectile as seen and running the spawn pipeline for new ones, then sweep out
+     * records that were not seen, which have despawned.
+     */
+    private void pollProjectiles(ConfigSnapshot settings)
+    {
+        int cycle = client.getGameCycle();
+        for (Projectile projectile : client.getProjectiles())
+        {
+            ProjectileRecordStore.Record record = projectileRecords.getOrCreate(projectile);
+            record.setSeenCycle(cycle);
+            if (!record.isProcessed())
+            {
+                processSpawn(record, settings);
+            }
+        }
+
+        // Iterate backwards since removal moves the last record into the freed index
+        for (int i = projectileRecords.size() - 1; i >= 0; i--)
+        {
+            ProjectileRecordStore.Record record = projectileRecords.get(i);
+            if (record.getSeenCycle() != cycle)
+            {
+                projectileRecords.remove(record.getProjectile());
+            }
+        }
+    }
+
+    /**
+     * Spawn pipeline shared by both ingestion modes, run once per projectile instance:
+     * classify against the groups, hand it to attribution for the recent list, then track it.
+     */
+    private void processSpawn(ProjectileRecordStore.Record record, ConfigSnapshot settings)
+    {
+        Projectile projectile = record.getProjectile();
+        int projectileId = projectile.getId();
+
+        record.setProcessed(true);
+        expiryQueue.add(projectile);
+
+        // Classify: should we track this projectile for rendering? Group and config
+        // changes re-check every live record in refreshTrackedProjectiles
+        TrackedProjectileInfo info = getTrackingInfo(projectileId);
+
+        // Attribute: feed to panel for recent list; attribution is deferred off the
+        // event path, and skipped entirely while the panel is hidden
+        if (panel != null)
+        {
+            if (panel.isActive())
+            {
+                queueAttribution(projectile);
+            }
+            else
+            {
+                hiddenSightings.record(projectileId,
+                    settings.getAttributionMode() == ProjectileHighlighterConfig.AttributionMode.OFF ? null : projectile.getSourceActor());
+            }
+        }
+
+        // Track
+        if (info != null)
+        {
+            projectileRecords.track(record, info);
+            log.debug("Tracking projectile ID: {} with color: {}", projectileId, info.getColor());
+        }
+    }
+
+    /**
+     * Turn the sightings recorded while the panel was hidden into recent rows.
+     * Only the direct source is available at this point; the proximity fallback
+     * needs actor positions from the moment the projectile spawned. An NPC source
+     * that has since despawned, or whose index now belongs to another NPC, is unknown.
+     */
+    private void materializeHiddenSightings()
+    {
+        if (panel == null || hiddenSightings.isEmpty())
+        {
+            return;
+        }
+
+        boolean attribute = configSnapshot.getAttributionMode() != ProjectileHighlighterConfig.AttributionMode.OFF;
+        Map<Integer, NPC> npcsByIndex = new HashMap<>();
+        if (attribute)
+        {
+            for (NPC npc : client.getNpcs())
+            {
+                npcsByIndex.put(npc.getIndex(), npc);
+            }
+        }
+
+        hiddenSightings.drain((projectileId, npcIndex, npcId, playerName) -> {
+            String sourceName = null;
+            if (attribute)
+            {
+                NPC npc = npcIndex == HiddenSightingLog.NO_NPC ? null : npcsByIndex.get(npcIndex);
+                sourceName = npc != null && npc.getId() == npcId ? getActorName(npc) : sanitizeActorName(playerName);
+                if (sourceName == null)
+                {
+                    sourceName = "Unknown Source";
+                }
+            }
+            panel.addRecentProjectile(projectileId, sourceName);
+        });
+        panel.flushRecentProjectiles();
+    }
+
+    private void queueAttribution(Projectile projectile)
+    {
+        if (configSnapshot.getAttributionMode() == ProjectileHighlighterConfig.AttributionMode.OFF)
+        {
+            panel.addRecentProjectile(projectile.getId(), null);
+            return;
+        }
+
+        if (pendingAttribution.size() >= MAX_PENDING_ATTRIBUTIONS)
+        {
+            // Falling behind: let the oldest through unattributed rather than grow without bound
+            Projectile oldest = pendingAttribution.poll();
+            panel.addRecentProjectile(oldest.getId(), null);
+        }
+        pendingAttribution.add(projectile);
+    }
+
+    /**
+     * Attribute queued projectiles until the per-tick time budget runs out.
+     * At least one projectile is handled per call so the queue always drains.
+     */
+    private void drainAttributionQueue()
+    {
+        if (pendingAttribution.isEmpty() || panel == null)
+        {
+            return;
+        }
+
+        ProjectileHighlighterConfig.AttributionMode mode = configSnapshot.getAttributionMode();
+        long deadline = System.nanoTime() + configSnapshot.getAttributionBudgetNanos();
+        do
+        {
+            Projectile projectile = pendingAttribution.poll();
+            String sourceName = mode == ProjectileHighlighterConfig.AttributionMode.OFF
+                ? null
+                : resolveSourceName(projectile, mode == ProjectileHighlighterConfig.AttributionMode.FULL);
+            panel.addRecentProjectile(projectile.getId(), sourceName);
+        }
+        while (!pendingAttribution.isEmpty() && System.nanoTime() < deadline);
     }
 
     /**
@@ -196,35 +489,81 @@ public class ProjectileHighlighterPlugin extends Plugin
     private TrackedProjectileInfo getTrackingInfo(int projectileId)
     {
         // Check if highlight all is enabled
-        if (config.highlightAll())
+        ConfigSnapshot settings = configSnapshot;
+        if (settings.isHighlightAll())
         {
-            return new TrackedProjectileInfo(
-                ProjectileColorUtil.getDefaultColorForProjectile(projectileId, config),
-                config.overlayStyle()
-            );
+            Color color = ProjectileColorUtil.getDefaultColorForProjectile(projectileId, settings.getDefaultColorMode(), settings.getDefaultColor());
+            return internInfo(color.getRGB(), settings.getOverlayStyle(), settings);
         }
 
         // Check enabled groups for this projectile
-        ProjectileEntry entry = groupStorage.getEnabledEntry(projectileId);
-        if (entry != null)
+        ProjectileLookup lookup = groupStorage.getLookup();
+        int slot = lookup.indexOf(projectileId);
+        if (slot >= 0)
         {
-            return new TrackedProjectileInfo(entry.getColor(), entry.getOverlayStyle());
+            return internInfo(lookup.getColorArgb(slot), lookup.getOverlayStyle(slot), settings);
         }
 
         return null;
     }
 
+    /**
+     * Return the shared paint flyweight for a color and style under the given config.
+     * The pool is dropped whenever the config snapshot changes.
+     */
+    private TrackedProjectileInfo internInfo(int argb, ProjectileHighlighterConfig.OverlayStyle style, ConfigSnapshot settings)
+    {
+        if (paintPoolVersion != settings.getVersion())
+        {
+            paintPool.clear();
+            paintPoolVersion = settings.getVersion();
+        }
+
+        long key = ((long) argb << 32) | style.ordinal();
+        TrackedProjectileInfo info = paintPool.get(key);
+        if (info == null)
+        {
+            info = new TrackedProjectileInfo(argb, style, settings, paintPool.size());
+            paintPool.put(key, info);
+        }
+        return info;
+    }
+
     @Subscribe
     public void onGameTick(GameTick event)
     {
-        // Clean up expired projectiles
-        trackedProjectiles.entrySet().removeIf(entry ->
-            entry.getKey().getRemainingCycles() <= 0
-        );
+        // Hand this tick's recent sightings to the panel in one batch
+        if (panel != null)
+        {
+            panel.flushRecentProjectiles();
+        }
 
-        processedProjectiles.removeIf(projectile ->
-            projectile.getRemainingCycles() <= 0
-        );
+        reportIngestionCost();
+    }
+
+    /**
+     * In debug mode, log what ingestion has cost in the current mode, averaged over
+     * a fixed number of game ticks, so the event and poll modes can be compared live.
+     */
+    private void reportIngestionCost()
+    {
+        ConfigSnapshot settings = configSnapshot;
+        if (!settings.isDebugMode())
+        {
+            ingestionNanos = 0;
+            ingestionTicks = 0;
+            return;
+        }
+
+        if (++ingestionTicks < INGESTION_REPORT_TICKS)
+        {
+            return;
+        }
+
+        log.debug("{} ingestion: {} µs per game tick over {} ticks, {} live projectiles",
+            settings.getIngestionMode(), ingestionNanos / 1000 / ingestionTicks, ingestionTicks, projectileRecords.size());
+        ingestionNanos = 0;
+        ingestionTicks = 0;
     }
 
     @Subscribe
@@ -235,29 +574,39 @@ public class ProjectileHighlighterPlugin extends Plugin
             return;
         }
 
-        // Clear tracking when highlighting is disabled
-        if (event.getKey().equals("enabled") && !config.enabled())
+        rebuildConfigSnapshot();
+
+        if (groupStorage != null)
         {
-            trackedProjectiles.clear();
-            processedProjectiles.clear();
+            groupStorage.setStorageFormat(config.storageFormat());
         }
-		else if (event.getKey().equals("highlightAll")
-			|| event.getKey().equals("defaultColorMode")
-			|| event.getKey().equals("defaultColor")
-			|| event.getKey().equals("overlayStyle"))
-		{
-			refreshTrackedProjectiles();
-		}
 
+        // Config changes arrive off the client thread; tracking state lives on it
+        clientThread.invokeLater(() -> {
+            // Clear tracking when highlighting is disabled
+            if (!configSnapshot.isEnabled())
+            {
+                projectileRecords.clear();
+                expiryQueue.clear();
+                pendingAttribution.clear();
+                hiddenSightings.clear();
+            }
+            else
+            {
+                // Any paint-affecting value may have changed; re-intern against the new snapshot
+                refreshTrackedProjectiles();
+            }
+        });
     }
 
     /**
-     * Called when groups change in storage.
+     * Called when groups change in storage. Runs on the EDT, or on the executor for
+     * the initial load, so the tracked projectile refresh is handed over to the client thread.
      */
-    private void onGroupsChanged(List<ProjectileGroup> groups)
+    private void onGroupsChanged(GroupSnapshot snapshot)
     {
-        log.debug("Groups changed, {} groups total", groups.size());
-        refreshTrackedProjectiles();
+        log.debug("Groups changed, {} groups total (version {})", snapshot.getGroups().size(), snapshot.getVersion());
+        clientThread.invokeLater(this::refreshTrackedProjectiles);
     }
 
 	private void refreshTrackedProjectiles()
@@ -267,17 +616,11 @@ public class ProjectileHighlighterPlugin extends Plugin
 			return;
 		}
 
-		trackedProjectiles.entrySet().removeIf(entry -> {
-			int projectileId = entry.getKey().getId();
-			TrackedProjectileInfo updated = getTrackingInfo(projectileId);
-			if (updated == null)
-			{
-				return true;
-			}
-
-			entry.setValue(updated);
-			return false;
-		});
+		for (int i = 0; i < projectileRecords.size(); i++)
+		{
+			ProjectileRecordStore.Record record = projectileRecords.get(i);
+			projectileRecords.track(record, getTrackingInfo(record.getProjectile().getId()));
+		}
 	}
 
     /**
@@ -310,7 +653,7 @@ public class ProjectileHighlighterPlugin extends Plugin
             return null;
         }
 
-        String cleaned = name.replaceAll("<[^>]*>", "").trim();
+        String cleaned = TAG_PATTERN.matcher(name).replaceAll("").trim();
         if (cleaned.isEmpty() || cleaned.equalsIgnoreCase("null"))
         {
             return null;
@@ -323,10 +666,10 @@ public class ProjectileHighlighterPlugin extends Plugin
      * Resolve a source name for a projectile, with a proximity fallback.
      * Priority:
      * 1) Direct source actor from RuneLite API
-     * 2) Closest actor to projectile source/spawn point
+     * 2) Closest actor to projectile source/spawn point (only with proximity fallback)
      * 3) Unknown Source
      */
-    private String resolveSourceName(Projectile projectile)
+    private String resolveSourceName(Projectile projectile, boolean proximityFallback)
     {
         String sourceName = getActorName(projectile.getSourceActor());
         if (sourceName != null && !sourceName.isEmpty())
@@ -334,6 +677,11 @@ public class ProjectileHighlighterPlugin extends Plugin
             return sourceName;
         }
 
+        if (!proximityFallback)
+        {
+            return "Unknown Source";
+        }
+
         Actor targetActor = projectile.getTargetActor();
         Actor fallback = null;
         WorldPoint sourcePoint = projectile.getSourcePoint();
@@ -359,172 +707,43 @@ public class ProjectileHighlighterPlugin extends Plugin
 
     private Actor findClosestActorToWorldPoint(WorldPoint sourcePoint, Actor targetActor)
     {
-        Candidate npcCandidate = findClosestNpcToWorldPoint(sourcePoint, targetActor);
-        Candidate playerCandidate = findClosestPlayerToWorldPoint(sourcePoint, targetActor);
+        ensureActorIndex();
+        Candidate npcCandidate = toCandidate(npcIndex, npcIndex.findClosest(sourcePoint, targetActor));
+        Candidate playerCandidate = toCandidate(playerIndex, playerIndex.findClosest(sourcePoint, targetActor));
         return chooseBestFallbackActor(npcCandidate, playerCandidate, targetActor, WORLD_DISTANCE_BIAS_TILES);
     }
 
     private Actor findClosestActorToLocalPoint(LocalPoint sourceLocal, Actor targetActor)
     {
-        Candidate npcCandidate = findClosestNpcToLocalPoint(sourceLocal, targetActor);
-        Candidate playerCandidate = findClosestPlayerToLocalPoint(sourceLocal, targetActor);
+        ensureActorIndex();
+        Candidate npcCandidate = toCandidate(npcIndex, npcIndex.findClosest(sourceLocal, targetActor));
+        Candidate playerCandidate = toCandidate(playerIndex, playerIndex.findClosest(sourceLocal, targetActor));
         return chooseBestFallbackActor(npcCandidate, playerCandidate, targetActor, LOCAL_DISTANCE_BIAS_UNITS);
     }
 
-    private int getDistanceToWorldPoint(WorldPoint sourcePoint, Actor actor)
-    {
-        if (actor == null)
-        {
-            return Integer.MAX_VALUE;
-        }
-
-        String actorName = getActorName(actor);
-        if (actorName == null || actorName.isEmpty())
-        {
-            return Integer.MAX_VALUE;
-        }
-
-        WorldPoint actorPoint = actor.getWorldLocation();
-        if (actorPoint == null || actorPoint.getPlane() != sourcePoint.getPlane())
-        {
-            return Integer.MAX_VALUE;
-        }
-
-        return actorPoint.distanceTo2D(sourcePoint);
-    }
-
-    private int getDistanceToLocalPoint(LocalPoint sourceLocal, Actor actor)
-    {
-        if (actor == null)
-        {
-            return Integer.MAX_VALUE;
-        }
-
-        String actorName = getActorName(actor);
-        if (actorName == null || actorName.isEmpty())
-        {
-            return Integer.MAX_VALUE;
-        }
-
-        LocalPoint actorPoint = actor.getLocalLocation();
-        if (actorPoint == null)
-        {
-            return Integer.MAX_VALUE;
-        }
-
-        return actorPoint.distanceTo(sourceLocal);
-    }
-
-    private Candidate findClosestNpcToWorldPoint(WorldPoint sourcePoint, Actor excludedActor)
+    /**
+     * Build the NPC and player indexes lazily, at most once per game tick.
+     */
+    private void ensureActorIndex()
     {
-        Candidate closest = null;
-        for (NPC npc : client.getNpcs())
+        int tick = client.getTickCount();
+        if (tick == actorIndexTick)
         {
-            if (npc == excludedActor)
-            {
-                continue;
-            }
-
-            int distance = getDistanceToWorldPoint(sourcePoint, npc);
-            if (distance == Integer.MAX_VALUE)
-            {
-                continue;
-            }
-
-            if (closest == null || distance < closest.distance)
-            {
-                closest = new Candidate(npc, distance);
-                if (distance == 0)
-                {
-                    return closest;
-                }
-            }
+            return;
         }
-        return closest;
-    }
 
-    private Candidate findClosestPlayerToWorldPoint(WorldPoint sourcePoint, Actor excludedActor)
-    {
-        Candidate closest = null;
-        for (Player player : client.getPlayers())
-        {
-            if (player == excludedActor)
-            {
-                continue;
-            }
-
-            int distance = getDistanceToWorldPoint(sourcePoint, player);
-            if (distance == Integer.MAX_VALUE)
-            {
-                continue;
-            }
-
-            if (closest == null || distance < closest.distance)
-            {
-                closest = new Candidate(player, distance);
-                if (distance == 0)
-                {
-                    return closest;
-                }
-            }
-        }
-        return closest;
+        npcIndex.build(client.getNpcs(), this::getActorName);
+        playerIndex.build(client.getPlayers(), this::getActorName);
+        actorIndexTick = tick;
     }
 
-    private Candidate findClosestNpcToLocalPoint(LocalPoint sourcePoint, Actor excludedActor)
+    private static Candidate toCandidate(ActorSpatialIndex index, int slot)
     {
-        Candidate closest = null;
-        for (NPC npc : client.getNpcs())
+        if (slot < 0)
         {
-            if (npc == excludedActor)
-            {
-                continue;
-            }
-
-            int distance = getDistanceToLocalPoint(sourcePoint, npc);
-            if (distance == Integer.MAX_VALUE)
-            {
-                continue;
-            }
-
-            if (closest == null || distance < closest.distance)
-            {
-                closest = new Candidate(npc, distance);
-                if (distance == 0)
-                {
-                    return closest;
-                }
-            }
-        }
-        return closest;
-    }
-
-    private Candidate findClosestPlayerToLocalPoint(LocalPoint sourcePoint, Actor excludedActor)
-    {
-        Candidate closest = null;
-        for (Player player : client.getPlayers())
-        {
-            if (player == excludedActor)
-            {
-                continue;
-            }
-
-            int distance = getDistanceToLocalPoint(sourcePoint, player);
-            if (distance == Integer.MAX_VALUE)
-            {
-                continue;
-            }
-
-            if (closest == null || distance < closest.distance)
-            {
-                closest = new Candidate(player, distance);
-                if (distance == 0)
-                {
-                    return closest;
-                }
-            }
+            return null;
         }
-        return closest;
+        return new Candidate(index.getActor(slot), index.getLastDistance());
     }
 
     private Actor chooseBestFallbackActor(Candidate npcCandidate, Candidate playerCandidate, Actor targetActor, int biasDistance)
@@ -602,18 +821,35 @@ public class ProjectileHighlighterPlugin extends Plugin
     }
 
     /**
-     * Info class for tracked projectiles.
+     * Paint flyweight for tracked projectiles, interned per (ARGB, style, config version).
+     * Carries the derived fill and outline colors so the overlay allocates nothing per projectile.
      */
     @Getter
     public static class TrackedProjectileInfo
     {
-        private final Color color;
+        private final int argb;
         private final ProjectileHighlighterConfig.OverlayStyle overlayStyle;
-
-        public TrackedProjectileInfo(Color color, ProjectileHighlighterConfig.OverlayStyle overlayStyle)
-        {
-            this.color = color;
+        private final int configVersion;
+        private final Color color;
+        private final Color fillColor;
+        private final Color outlineColor;
+        private final BasicStroke stroke;
+        // Position in the intern pool of its config version, so per-tick tables can index by it
+        private final int internIndex;
+
+        private TrackedProjectileInfo(int argb, ProjectileHighlighterConfig.OverlayStyle overlayStyle, ConfigSnapshot settings,
+                                      int internIndex)
+        {
+            int alpha = argb >>> 24;
+            int rgb = argb & 0xFFFFFF;
+            this.argb = argb;
             this.overlayStyle = overlayStyle;
+            this.configVersion = settings.getVersion();
+            this.color = new Color(argb, true);
+            this.fillColor = new Color((Math.min(alpha, settings.getFillOpacity()) << 24) | rgb, true);
+            this.outlineColor = new Color(0xFF000000 | rgb, true);
+            this.stroke = settings.getOutlineStroke();
+            this.internIndex = internIndex;
         }
     }
 }
@@ -33,12 +33,25 @@ public class ProjectileEntry
         );
     }
 
+    /**
+     * Packed ARGB value of the entry color, without allocating a Color.
+     */
+    public int getArgb()
+    {
+        return (colorAlpha << 24) | (colorRgb & 0xFFFFFF);
+    }
+
     public void setColor(Color color)
     {
         this.colorRgb = (color.getRed() << 16) | (color.getGreen() << 8) | color.getBlue();
         this.colorAlpha = color.getAlpha();
     }
 
+    public ProjectileEntry copy()
+    {
+        return new ProjectileEntry(projectileId, customName, colorRgb, colorAlpha, overlayStyle);
+    }
+
     public static ProjectileEntry createDefault(int projectileId, Color defaultColor, OverlayStyle defaultStyle)
     {
         return ProjectileEntry.builder()
@@ -60,14 +60,34 @@ public class ProjectileGroup
         {
             return null;
         }
-        return entries.stream()
-            .filter(e -> e.getProjectileId() == projectileId)
-            .findFirst()
-            .orElse(null);
+        for (ProjectileEntry entry : entries)
+        {
+            if (entry.getProjectileId() == projectileId)
+            {
+                return entry;
+            }
+        }
+        return null;
     }
 
     public int getEntryCount()
     {
         return entries != null ? entries.size() : 0;
     }
+
+    /**
+     * Deep copy, for handing the group to code that must not see later edits.
+     */
+    public ProjectileGroup copy()
+    {
+        List<ProjectileEntry> entriesCopy = new ArrayList<>(getEntryCount());
+        if (entries != null)
+        {
+            for (ProjectileEntry entry : entries)
+            {
+                entriesCopy.add(entry.copy());
+            }
+        }
+        return new ProjectileGroup(id, name, enabled, entriesCopy);
+    }
 }
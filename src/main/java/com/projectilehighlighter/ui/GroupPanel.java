@@ -16,8 +16,12 @@ import java.awt.event.FocusAdapter;
 import java.awt.event.FocusEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import java.awt.image.BufferedImage;
 
 import static java.awt.RenderingHints.KEY_ANTIALIASING;
@@ -58,7 +62,12 @@ private static final Color HEADER_BG_ALT = new Color(48, 48, 48);
 	private static final Color ENTRY_BG = new Color(50, 50, 50);
 	private static final Color ENTRY_BG_ALT = new Color(60, 60, 60);
 
+    // Published group, read only; entry edits go to the working entries and are saved as copies
     private final ProjectileGroup group;
+    // Copies of the group's entries followed by its unsaved drafts, in display order
+    private final List<ProjectileEntry> entries;
+    // Entries added in the panel that have no projectile ID yet; owned by the parent panel
+    private final List<ProjectileEntry> drafts;
     private final JPanel entriesPanel;
     private JLabel expandLabel;
     private JLabel countLabel;
@@ -72,28 +81,42 @@ private static final Color HEADER_BG_ALT = new Color(48, 48, 48);
     private final Consumer<ProjectileGroup> onDelete;
     private final Consumer<ProjectileGroup> onAddEntry;
     private final Consumer<ProjectileGroup> onExport;
-    private final Runnable onGroupChanged;
+    private final BiConsumer<Integer, ProjectileEntry> onEntrySaved;
+    private final IntConsumer onEntryRemoved;
     private final ColorPickerManager colorPickerManager;
 
     public GroupPanel(ProjectileGroup group,
+                      List<ProjectileEntry> drafts,
                       Consumer<ProjectileGroup> onToggleEnabled,
                       Consumer<ProjectileGroup> onRename,
                       Consumer<ProjectileGroup> onDelete,
                       Consumer<ProjectileGroup> onAddEntry,
                       Consumer<ProjectileGroup> onExport,
-                      Runnable onGroupChanged,
+                      BiConsumer<Integer, ProjectileEntry> onEntrySaved,
+                      IntConsumer onEntryRemoved,
                       ColorPickerManager colorPickerManager,
 					  boolean alternateRowColor,
 					  boolean initiallyExpanded,
 					  Consumer<Boolean> onExpansionChanged)
     {
         this.group = group;
+        this.drafts = drafts;
+        this.entries = new ArrayList<>(group.getEntryCount() + drafts.size());
+        if (group.getEntries() != null)
+        {
+            for (ProjectileEntry entry : group.getEntries())
+            {
+                entries.add(entry.copy());
+            }
+        }
+        entries.addAll(drafts);
         this.onToggleEnabled = onToggleEnabled;
         this.onRename = onRename;
         this.onDelete = onDelete;
         this.onAddEntry = onAddEntry;
         this.onExport = onExport;
-        this.onGroupChanged = onGroupChanged;
+        this.onEntrySaved = onEntrySaved;
+        this.onEntryRemoved = onEntryRemoved;
         this.colorPickerManager = colorPickerManager;
 		this.panelBackground = alternateRowColor ? PANEL_BG_ALT : PANEL_BG;
 		this.headerBackground = alternateRowColor ? HEADER_BG_ALT : HEADER_BG;
@@ -166,7 +189,7 @@ private static final Color HEADER_BG_ALT = new Color(48, 48, 48);
         leftSide.add(nameLabel);
         leftSide.add(Box.createHorizontalStrut(3));
 
-		countLabel = new JLabel("(" + group.getEntryCount() + ")");
+		countLabel = new JLabel("(" + entries.size() + ")");
 		countLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
 		countLabel.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 11));
         leftSide.add(countLabel);
@@ -252,7 +275,7 @@ private static final Color HEADER_BG_ALT = new Color(48, 48, 48);
         entriesPanel.removeAll();
 		int rowIndex = 0;
 
-        if (group.getEntries() == null || group.getEntries().isEmpty())
+        if (entries.isEmpty())
         {
             JLabel emptyLabel = new JLabel("No projectiles in this group");
             emptyLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
@@ -263,7 +286,7 @@ private static final Color HEADER_BG_ALT = new Color(48, 48, 48);
         }
         else
         {
-            for (ProjectileEntry entry : group.getEntries())
+            for (ProjectileEntry entry : entries)
             {
                 JPanel entryPanel = createEntryPanel(entry, rowIndex++);
                 entriesPanel.add(entryPanel);
@@ -292,7 +315,7 @@ private static final Color HEADER_BG_ALT = new Color(48, 48, 48);
 	{
 		if (countLabel != null)
 		{
-			countLabel.setText("(" + group.getEntryCount() + ")");
+			countLabel.setText("(" + entries.size() + ")");
 		}
 	}
 
@@ -556,7 +579,9 @@ private static final Color HEADER_BG_ALT = new Color(48, 48, 48);
 
 				if (entry.getProjectileId() < 0)
 				{
-					group.removeEntry(entry);
+					// Saved without an ID; the draft is dropped
+					removeIdentical(entries, entry);
+					removeIdentical(drafts, entry);
 					buildEntriesPanel();
 					return;
 				}
@@ -574,8 +599,11 @@ private static final Color HEADER_BG_ALT = new Color(48, 48, 48);
 
 		JButton removeBtn = createIconButton(MINUS_ICON, "Remove from group");
 		removeBtn.addActionListener(e -> {
-			group.removeEntry(entry);
-			onGroupChanged.run();
+			removeIdentical(entries, entry);
+			if (!removeIdentical(drafts, entry))
+			{
+				onEntryRemoved.accept(entry.getProjectileId());
+			}
 			buildEntriesPanel();
 		});
         row2.add(removeBtn);
@@ -639,9 +667,12 @@ private static final Color HEADER_BG_ALT = new Color(48, 48, 48);
 
 			if (newId != entry.getProjectileId())
 			{
+				int previousId = entry.getProjectileId();
 				entry.setProjectileId(newId);
 				field.setText(String.valueOf(entry.getProjectileId()));
-				onGroupChanged.run();
+				// A draft becomes a stored entry once it has an ID
+				removeIdentical(drafts, entry);
+				onEntrySaved.accept(previousId, entry);
 			}
 			else
 			{
@@ -670,8 +701,24 @@ private static final Color HEADER_BG_ALT = new Color(48, 48, 48);
 		field.setText(text);
 		if (entry.getProjectileId() >= 0)
 		{
-			onGroupChanged.run();
+			onEntrySaved.accept(entry.getProjectileId(), entry);
+		}
+	}
+
+	/**
+	 * Remove this exact entry object; entries compare by value, and a draft may equal another entry.
+	 */
+	private static boolean removeIdentical(List<ProjectileEntry> list, ProjectileEntry entry)
+	{
+		for (int i = 0; i < list.size(); i++)
+		{
+			if (list.get(i) == entry)
+			{
+				list.remove(i);
+				return true;
+			}
 		}
+		return false;
 	}
 
 	private void updateToggleButtonIcon(JButton toggleBtn, boolean hover)
@@ -799,7 +846,7 @@ private static final Color HEADER_BG_ALT = new Color(48, 48, 48);
 				entry.setOverlayStyle(style);
 				if (entry.getProjectileId() >= 0)
 				{
-					onGroupChanged.run();
+					onEntrySaved.accept(entry.getProjectileId(), entry);
 				}
 			}
 
@@ -883,7 +930,7 @@ private static final Color HEADER_BG_ALT = new Color(48, 48, 48);
 			refreshStyleButtons(styleButtons, entry, editing[0]);
 			if (entry.getProjectileId() >= 0)
 			{
-				onGroupChanged.run();
+				onEntrySaved.accept(entry.getProjectileId(), entry);
 			}
         });
         colorPicker.setVisible(true);
@@ -6,6 +6,7 @@ import com.projectilehighlighter.model.ProjectileGroup;
 import com.projectilehighlighter.model.RecentProjectile;
 import com.projectilehighlighter.util.ProjectileColorUtil;
 import com.projectilehighlighter.util.GroupStorage;
+import com.projectilehighlighter.util.RecentProjectileBuffer;
 import net.runelite.client.ui.ColorScheme;
 import net.runelite.client.ui.PluginPanel;
 import net.runelite.client.ui.components.colorpicker.ColorPickerManager;
@@ -20,6 +21,7 @@ import java.awt.datatransfer.StringSelection;
 import java.awt.image.BufferedImage;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Main sidebar panel for Projectile Highlighter plugin.
@@ -27,7 +29,9 @@ import java.util.List;
  */
 public class ProjectileHighlighterPanel extends PluginPanel
 {
-    private static final int MAX_RECENT_PROJECTILES = 10;
+    private static final int MAX_RECENT_PROJECTILES = 50;
+    private static final int VISIBLE_RECENT_ROWS = 10;
+    private static final int RECENT_BUFFER_CAPACITY = 512;
     private static final Color SECTION_HEADER_COLOR = new Color(100, 180, 255);
     private static final Color RECENT_HEADER_COLOR = new Color(255, 180, 100);
 	private static final Color ACTION_ICON_COLOR = new Color(200, 200, 200);
@@ -77,15 +81,32 @@ public class ProjectileHighlighterPanel extends PluginPanel
     private final ProjectileHighlighterConfig config;
     private final ColorPickerManager colorPickerManager;
 
-    // Recent projectiles tracking (ordered by insertion, newest last)
-    private final LinkedHashMap<Integer, RecentProjectile> recentProjectiles = new LinkedHashMap<>();
+    // Recent projectiles, newest first
+    private final RecentProjectileTableModel recentModel = new RecentProjectileTableModel(MAX_RECENT_PROJECTILES);
 	private final Map<String, Boolean> groupExpansionState = new HashMap<>();
+	// Entries added with + that have no projectile ID yet, by group ID; kept out of storage until saved
+	private final Map<String, List<ProjectileEntry>> draftEntries = new HashMap<>();
+
+    // Sightings handed over from the client thread, applied on the EDT in batches
+    private final RecentProjectileBuffer recentBuffer = new RecentProjectileBuffer(RECENT_BUFFER_CAPACITY);
+    private final AtomicBoolean recentFlushScheduled = new AtomicBoolean();
+
+    // Groups are read off-thread at startup; until then the list shows a loading state and can't be edited
+    private boolean groupsLoaded;
+
+    // Whether the sidebar is currently showing this panel (read by the client thread)
+    private volatile boolean active;
+    private Runnable onActivatedCallback;
 
     // UI Components
     private final JPanel groupsContainer;
     private final JPanel recentContainer;
     private final JLabel noGroupsLabel;
+    private final JLabel loadingGroupsLabel;
+    private final JPanel groupHeaderButtons;
     private final JLabel noRecentLabel;
+    private final JPanel recentEmptyRow;
+    private final JScrollPane recentScrollPane;
 
     private int tempProjectileId = -1;
 
@@ -127,23 +148,23 @@ public class ProjectileHighlighterPanel extends PluginPanel
         JPanel groupsHeader = createSectionHeader("Groups", SECTION_HEADER_COLOR);
 
 		// Header buttons panel (right side)
-		JPanel headerButtons = new JPanel(new FlowLayout(FlowLayout.RIGHT, 2, 0));
-		headerButtons.setBackground(ColorScheme.DARKER_GRAY_COLOR);
-		headerButtons.setOpaque(false);
+		groupHeaderButtons = new JPanel(new FlowLayout(FlowLayout.RIGHT, 2, 0));
+		groupHeaderButtons.setBackground(ColorScheme.DARKER_GRAY_COLOR);
+		groupHeaderButtons.setOpaque(false);
 
 		JButton importBtn = createIconButton(IMPORT_ICON, "Import groups from clipboard");
 		importBtn.addActionListener(e -> importGroups());
-		headerButtons.add(importBtn);
+		groupHeaderButtons.add(importBtn);
 
 		JButton exportBtn = createIconButton(EXPORT_ICON, "Export all groups to clipboard");
 		exportBtn.addActionListener(e -> exportGroups());
-		headerButtons.add(exportBtn);
+		groupHeaderButtons.add(exportBtn);
 
 		JButton addGroupBtn = createPlusButton("Create a new projectile group");
 		addGroupBtn.addActionListener(e -> createNewGroup());
-		headerButtons.add(addGroupBtn);
+		groupHeaderButtons.add(addGroupBtn);
 
-		groupsHeader.add(headerButtons, BorderLayout.EAST);
+		groupsHeader.add(groupHeaderButtons, BorderLayout.EAST);
         groupsSection.add(groupsHeader, BorderLayout.NORTH);
 
         groupsContainer = new JPanel();
@@ -156,6 +177,11 @@ public class ProjectileHighlighterPanel extends PluginPanel
         noGroupsLabel.setBorder(new EmptyBorder(8, 10, 8, 10));
 		noGroupsLabel.setFont(new Font(Font.SANS_SERIF, Font.ITALIC, 12));
 
+        loadingGroupsLabel = new JLabel("Loading groups...");
+        loadingGroupsLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
+        loadingGroupsLabel.setBorder(new EmptyBorder(8, 10, 8, 10));
+		loadingGroupsLabel.setFont(new Font(Font.SANS_SERIF, Font.ITALIC, 12));
+
         groupsSection.add(groupsContainer, BorderLayout.CENTER);
         mainContent.add(groupsSection);
 
@@ -179,25 +205,41 @@ public class ProjectileHighlighterPanel extends PluginPanel
         clearRecentBtn.setMargin(new Insets(1, 4, 1, 4));
 		clearRecentBtn.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 11));
         clearRecentBtn.addActionListener(e -> {
-            recentProjectiles.clear();
+            recentModel.clear();
             refreshRecentList();
         });
         recentHeader.add(clearRecentBtn, BorderLayout.EAST);
         recentSection.add(recentHeader, BorderLayout.NORTH);
 
-        recentContainer = new JPanel();
-        recentContainer.setLayout(new BoxLayout(recentContainer, BoxLayout.Y_AXIS));
+        recentContainer = new JPanel(new BorderLayout());
         recentContainer.setBackground(ColorScheme.DARK_GRAY_COLOR);
 		recentContainer.setAlignmentX(Component.LEFT_ALIGNMENT);
+		recentContainer.add(createRecentHeaderRow(), BorderLayout.NORTH);
 
         noRecentLabel = new JLabel("No projectiles seen yet");
         noRecentLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
         noRecentLabel.setBorder(new EmptyBorder(0, 0, 0, 0));
 		noRecentLabel.setFont(new Font(Font.SANS_SERIF, Font.ITALIC, 12));
 
+		recentEmptyRow = new JPanel(new BorderLayout());
+		recentEmptyRow.setBackground(ColorScheme.DARK_GRAY_COLOR);
+		JPanel emptyWrapper = new JPanel(new BorderLayout());
+		emptyWrapper.setBackground(new Color(35, 35, 35));
+		emptyWrapper.setBorder(new EmptyBorder(6, 12, 6, 6));
+		emptyWrapper.setPreferredSize(new Dimension(Integer.MAX_VALUE, RecentProjectileTable.ROW_HEIGHT));
+		emptyWrapper.add(noRecentLabel, BorderLayout.WEST);
+		recentEmptyRow.add(emptyWrapper, BorderLayout.NORTH);
+
+		RecentProjectileTable recentTable = new RecentProjectileTable(recentModel, this::showAddToGroupDialog);
+		recentScrollPane = new JScrollPane(recentTable);
+		recentScrollPane.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+		recentScrollPane.setVerticalScrollBarPolicy(ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED);
+		recentScrollPane.getViewport().setBackground(ColorScheme.DARK_GRAY_COLOR);
+		recentScrollPane.setBorder(null);
+
         recentSection.add(recentContainer, BorderLayout.CENTER);
 
-		int recentHeight = 30 + (RecentProjectilePanel.ROW_HEIGHT * MAX_RECENT_PROJECTILES);
+		int recentHeight = 30 + (RecentProjectileTable.ROW_HEIGHT * VISIBLE_RECENT_ROWS);
 		recentSection.setPreferredSize(new Dimension(Integer.MAX_VALUE, recentHeight));
 		recentSection.setMinimumSize(new Dimension(0, recentHeight));
 		recentSection.setMaximumSize(new Dimension(Integer.MAX_VALUE, recentHeight));
@@ -205,6 +247,7 @@ public class ProjectileHighlighterPanel extends PluginPanel
         add(recentSection, BorderLayout.SOUTH);
 
         // Initial refresh
+        setGroupButtonsEnabled(false);
         refreshGroupsList();
         refreshRecentList();
     }
@@ -244,13 +287,35 @@ public class ProjectileHighlighterPanel extends PluginPanel
         }
     }
 
+    /**
+     * Leave the loading state once the group storage has finished loading. EDT only.
+     */
+    public void onGroupsLoaded()
+    {
+        groupsLoaded = true;
+        setGroupButtonsEnabled(true);
+        refreshGroupsList();
+    }
+
+    private void setGroupButtonsEnabled(boolean enabled)
+    {
+        for (Component button : groupHeaderButtons.getComponents())
+        {
+            button.setEnabled(enabled);
+        }
+    }
+
     public void refreshGroupsList()
     {
         groupsContainer.removeAll();
 
         List<ProjectileGroup> groups = groupStorage.getGroups();
 
-        if (groups.isEmpty())
+        if (!groupsLoaded)
+        {
+            groupsContainer.add(loadingGroupsLabel);
+        }
+        else if (groups.isEmpty())
         {
             groupsContainer.add(noGroupsLabel);
         }
@@ -262,12 +327,14 @@ public class ProjectileHighlighterPanel extends PluginPanel
 				boolean expanded = groupExpansionState.getOrDefault(group.getId(), Boolean.FALSE);
 				GroupPanel groupPanel = new GroupPanel(
 					group,
+					draftEntries.computeIfAbsent(group.getId(), id -> new ArrayList<>()),
 					this::toggleGroupEnabled,
 					this::renameGroup,
 					this::deleteGroup,
 					this::addProjectileToGroup,
 					this::exportGroup,
-					() -> groupStorage.updateGroup(group),
+					(previousId, entry) -> groupStorage.putEntry(group.getId(), previousId, entry),
+					projectileId -> groupStorage.removeEntry(group.getId(), projectileId),
 					colorPickerManager,
 					rowIndex % 2 == 1,
 					expanded,
@@ -318,6 +385,7 @@ public class ProjectileHighlighterPanel extends PluginPanel
         {
             groupStorage.deleteGroup(group);
 			groupExpansionState.remove(group.getId());
+			draftEntries.remove(group.getId());
             refreshGroupsList();
 		}
 	}
@@ -330,7 +398,7 @@ public class ProjectileHighlighterPanel extends PluginPanel
 			ProjectileColorUtil.getDefaultColorForProjectile(projectileId, config),
 			config.overlayStyle()
 		);
-		group.addEntry(entry);
+		draftEntries.computeIfAbsent(group.getId(), id -> new ArrayList<>()).add(entry);
 		refreshGroupsList();
 	}
 
@@ -349,82 +417,105 @@ public class ProjectileHighlighterPanel extends PluginPanel
 		);
 	}
 
+    @Override
+    public void onActivate()
+    {
+        active = true;
+        if (onActivatedCallback != null)
+        {
+            onActivatedCallback.run();
+        }
+    }
+
+    @Override
+    public void onDeactivate()
+    {
+        active = false;
+    }
+
     /**
-     * Add a projectile to the recent list (called from plugin on ProjectileMoved).
-     * All modifications to recentProjectiles must happen on the EDT to avoid
-     * ConcurrentModificationException when the UI is also accessing the map.
+     * Whether the panel is open in the sidebar. While it is not, the plugin
+     * skips building recent rows and only keeps a cheap summary.
+     */
+    public boolean isActive()
+    {
+        return active;
+    }
+
+    public void setOnActivatedCallback(Runnable callback)
+    {
+        this.onActivatedCallback = callback;
+    }
+
+    /**
+     * Queue a projectile for the recent list (called from the plugin on the client thread).
+     * Sightings are buffered without locking and applied on the EDT in batches by
+     * {@link #flushRecentProjectiles()}, so the table model is only touched on the EDT.
      */
     public void addRecentProjectile(int projectileId, String sourceName)
     {
-        // Move all map modifications to the EDT to prevent concurrent access issues
-        SwingUtilities.invokeLater(() -> {
-            String resolvedSource = (sourceName != null && !sourceName.isEmpty())
-                ? sourceName
-                : "Projectile " + projectileId;
-
-            // Update existing or add new
-            RecentProjectile recent = RecentProjectile.builder()
-                .projectileId(projectileId)
-                .sourceActorName(resolvedSource)
-                .build();
+        // A full buffer means the EDT is far behind; dropping the newest sighting is harmless
+        recentBuffer.offer(projectileId, sourceName);
+    }
 
-            // Remove if exists (to move to end and refresh)
-            recentProjectiles.remove(projectileId);
-            recentProjectiles.put(projectileId, recent);
+    /**
+     * Apply everything queued since the last flush to the table model in one batch.
+     * Called by the plugin once per game tick; schedules at most one EDT task at a time.
+     */
+    public void flushRecentProjectiles()
+    {
+        if (recentBuffer.isEmpty() || !recentFlushScheduled.compareAndSet(false, true))
+        {
+            return;
+        }
 
-            // Prune to MAX_RECENT
-            while (recentProjectiles.size() > MAX_RECENT_PROJECTILES)
+        SwingUtilities.invokeLater(() -> {
+            recentFlushScheduled.set(false);
+            if (recentBuffer.drain(this::applyRecentProjectile) > 0)
             {
-                Integer oldestKey = recentProjectiles.keySet().iterator().next();
-                recentProjectiles.remove(oldestKey);
+                refreshRecentList();
             }
-
-            refreshRecentList();
         });
     }
 
-    private void refreshRecentList()
+    private void applyRecentProjectile(String sourceName, int projectileId)
     {
-        recentContainer.removeAll();
-		recentContainer.add(createRecentHeaderRow());
+        String resolvedSource = (sourceName != null && !sourceName.isEmpty())
+            ? sourceName
+            : "Projectile " + projectileId;
+
+        recentModel.upsert(RecentProjectile.builder()
+            .projectileId(projectileId)
+            .sourceActorName(resolvedSource)
+            .build());
+    }
 
-        if (recentProjectiles.isEmpty())
+    /**
+     * Swap between the empty-state row and the table. Row contents are
+     * updated by the table model itself, so nothing is rebuilt here.
+     */
+    private void refreshRecentList()
+    {
+        Component body = recentModel.isEmpty() ? recentEmptyRow : recentScrollPane;
+        BorderLayout layout = (BorderLayout) recentContainer.getLayout();
+        if (layout.getLayoutComponent(BorderLayout.CENTER) == body)
         {
-			JPanel emptyWrapper = new JPanel(new BorderLayout());
-			emptyWrapper.setBackground(new Color(35, 35, 35));
-			emptyWrapper.setBorder(new EmptyBorder(6, 12, 6, 6));
-			emptyWrapper.setMinimumSize(new Dimension(0, RecentProjectilePanel.ROW_HEIGHT));
-			emptyWrapper.setPreferredSize(new Dimension(Integer.MAX_VALUE, RecentProjectilePanel.ROW_HEIGHT));
-			emptyWrapper.setMaximumSize(new Dimension(Integer.MAX_VALUE, RecentProjectilePanel.ROW_HEIGHT));
-			emptyWrapper.add(noRecentLabel, BorderLayout.WEST);
-            recentContainer.add(emptyWrapper);
+            return;
         }
-        else
-        {
-            // Show newest first
-            List<RecentProjectile> reversed = new ArrayList<>(recentProjectiles.values());
-            Collections.reverse(reversed);
 
-            int rowIndex = 0;
-            for (RecentProjectile recent : reversed)
-            {
-                RecentProjectilePanel panel = new RecentProjectilePanel(
-                    recent,
-                    rowIndex,
-                    this::showAddToGroupDialog
-                );
-                recentContainer.add(panel);
-                rowIndex++;
-            }
+        Component current = layout.getLayoutComponent(BorderLayout.CENTER);
+        if (current != null)
+        {
+            recentContainer.remove(current);
         }
-
+        recentContainer.add(body, BorderLayout.CENTER);
         recentContainer.revalidate();
         recentContainer.repaint();
     }
 
 	private JPanel createRecentHeaderRow()
 	{
-		int headerHeight = RecentProjectilePanel.ROW_HEIGHT;
+		int headerHeight = RecentProjectileTable.ROW_HEIGHT;
 		Color headerBg = new Color(48, 48, 48);
 		Color separatorColor = new Color(70, 70, 70);
 
@@ -440,9 +531,9 @@ public class ProjectileHighlighterPanel extends PluginPanel
 		rowContent.setOpaque(false);
 
 		// Column 1: Add header (use same icon as rows for consistency)
-		JLabel addLabel = new JLabel(RecentProjectilePanel.PLUS_ICON);
+		JLabel addLabel = new JLabel(RecentProjectileTable.PLUS_ICON);
 		addLabel.setHorizontalAlignment(SwingConstants.CENTER);
-		rowContent.add(createHeaderFixedWidthPanel(addLabel, RecentProjectilePanel.ADD_COLUMN_WIDTH, headerHeight));
+		rowContent.add(createHeaderFixedWidthPanel(addLabel, RecentProjectileTable.ADD_COLUMN_WIDTH, headerHeight));
 
 		// Separator
 		rowContent.add(createHeaderSeparator(separatorColor, headerHeight));
@@ -452,7 +543,7 @@ public class ProjectileHighlighterPanel extends PluginPanel
 		idLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
 		idLabel.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 12));
 		idLabel.setHorizontalAlignment(SwingConstants.CENTER);
-		rowContent.add(createHeaderFixedWidthPanel(idLabel, RecentProjectilePanel.ID_COLUMN_WIDTH, headerHeight));
+		rowContent.add(createHeaderFixedWidthPanel(idLabel, RecentProjectileTable.ID_COLUMN_WIDTH, headerHeight));
 
 		// Separator
 		rowContent.add(createHeaderSeparator(separatorColor, headerHeight));
@@ -491,6 +582,11 @@ public class ProjectileHighlighterPanel extends PluginPanel
 
     private void showAddToGroupDialog(RecentProjectile projectile)
     {
+        if (!groupsLoaded)
+        {
+            return;
+        }
+
         List<ProjectileGroup> groups = groupStorage.getGroups();
 
         if (groups.isEmpty())
@@ -561,8 +657,7 @@ public class ProjectileHighlighterPanel extends PluginPanel
                     }
 
                     ProjectileEntry entry = createEntryFromRecent(projectile);
-                    group.addEntry(entry);
-                    groupStorage.updateGroup(group);
+                    groupStorage.putEntry(group.getId(), entry.getProjectileId(), entry);
                     refreshGroupsList();
                     break;
                 }
@@ -0,0 +1,157 @@
+package com.projectilehighlighter.ui;
+
+import com.projectilehighlighter.model.RecentProjectile;
+
+import javax.swing.*;
+import javax.swing.border.Border;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableColumn;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.function.Consumer;
+
+import static java.awt.Cursor.DEFAULT_CURSOR;
+import static java.awt.Cursor.HAND_CURSOR;
+import static java.awt.RenderingHints.KEY_ANTIALIASING;
+import static java.awt.RenderingHints.VALUE_ANTIALIAS_ON;
+
+/**
+ * Recent projectiles table. Rows are painted by one shared renderer instead of
+ * one component tree per row, so updates create no component garbage.
+ */
+public class RecentProjectileTable extends JTable
+{
+	private static final Color ROW_COLOR_1 = new Color(35, 35, 35);
+	private static final Color ROW_COLOR_2 = new Color(42, 42, 42);
+
+	// Column widths - shared with header
+	public static final int ADD_COLUMN_WIDTH = 26;
+	public static final int ID_COLUMN_WIDTH = 50;
+	public static final int ROW_HEIGHT = 22;
+
+	// Left padding of the row, matching the header row border
+	private static final int ROW_INSET = 8;
+
+	private static final Font ID_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+	private static final Font TEXT_FONT = new Font(Font.SANS_SERIF, Font.PLAIN, 12);
+	private static final Color SEPARATOR_COLOR = new Color(60, 60, 60);
+	private static final Color SOURCE_TEXT_COLOR = new Color(200, 200, 200);
+
+	public static final Icon PLUS_ICON = createPlusIcon();
+
+	private final RecentProjectileTableModel recentModel;
+
+	public RecentProjectileTable(RecentProjectileTableModel model, Consumer<RecentProjectile> onAddToGroup)
+	{
+		super(model);
+		this.recentModel = model;
+
+		setTableHeader(null);
+		setRowHeight(ROW_HEIGHT);
+		setBackground(ROW_COLOR_1);
+		setFillsViewportHeight(true);
+		setShowHorizontalLines(false);
+		setShowVerticalLines(true);
+		setGridColor(SEPARATOR_COLOR);
+		setIntercellSpacing(new Dimension(1, 0));
+		setRowSelectionAllowed(false);
+		setCellSelectionEnabled(false);
+		setFocusable(false);
+		setAutoResizeMode(JTable.AUTO_RESIZE_LAST_COLUMN);
+
+		fixColumnWidth(RecentProjectileTableModel.ADD_COLUMN, ROW_INSET + ADD_COLUMN_WIDTH);
+		fixColumnWidth(RecentProjectileTableModel.ID_COLUMN, ID_COLUMN_WIDTH);
+		setDefaultRenderer(Object.class, new RowRenderer());
+
+		addMouseListener(new MouseAdapter()
+		{
+			@Override
+			public void mouseClicked(MouseEvent e)
+			{
+				int row = rowAtPoint(e.getPoint());
+				if (row >= 0 && columnAtPoint(e.getPoint()) == RecentProjectileTableModel.ADD_COLUMN)
+				{
+					onAddToGroup.accept(recentModel.getProjectile(row));
+				}
+			}
+		});
+		addMouseMotionListener(new MouseAdapter()
+		{
+			@Override
+			public void mouseMoved(MouseEvent e)
+			{
+				boolean overAdd = rowAtPoint(e.getPoint()) >= 0
+					&& columnAtPoint(e.getPoint()) == RecentProjectileTableModel.ADD_COLUMN;
+				setCursor(Cursor.getPredefinedCursor(overAdd ? HAND_CURSOR : DEFAULT_CURSOR));
+			}
+		});
+	}
+
+	private void fixColumnWidth(int columnIndex, int width)
+	{
+		TableColumn column = getColumnModel().getColumn(columnIndex);
+		column.setMinWidth(width);
+		column.setMaxWidth(width);
+		column.setPreferredWidth(width);
+		column.setResizable(false);
+	}
+
+	private final class RowRenderer extends DefaultTableCellRenderer
+	{
+		private final Border addBorder = new EmptyBorder(0, ROW_INSET, 0, 0);
+		private final Border idBorder = new EmptyBorder(0, 0, 0, 0);
+		private final Border sourceBorder = new EmptyBorder(0, 6, 0, 6);
+
+		@Override
+		public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+													   boolean hasFocus, int row, int column)
+		{
+			super.getTableCellRendererComponent(table, value, false, false, row, column);
+			setBackground((row % 2 == 0) ? ROW_COLOR_1 : ROW_COLOR_2);
+			setToolTipText(recentModel.getToolTip(row, column));
+
+			switch (column)
+			{
+				case RecentProjectileTableModel.ADD_COLUMN:
+					setIcon(PLUS_ICON);
+					setHorizontalAlignment(SwingConstants.CENTER);
+					setBorder(addBorder);
+					break;
+				case RecentProjectileTableModel.ID_COLUMN:
+					setIcon(null);
+					setFont(ID_FONT);
+					setForeground(Color.WHITE);
+					setHorizontalAlignment(SwingConstants.CENTER);
+					setBorder(idBorder);
+					break;
+				default:
+					setIcon(null);
+					setFont(TEXT_FONT);
+					setForeground(SOURCE_TEXT_COLOR);
+					setHorizontalAlignment(SwingConstants.LEFT);
+					setBorder(sourceBorder);
+					break;
+			}
+			return this;
+		}
+	}
+
+	private static Icon createPlusIcon()
+	{
+		int size = 16;
+		BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = image.createGraphics();
+		g.setRenderingHint(KEY_ANTIALIASING, VALUE_ANTIALIAS_ON);
+		g.setStroke(new BasicStroke(2.2f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+		g.setColor(new Color(90, 200, 90));
+		int mid = size / 2;
+		int inset = 4;
+		g.drawLine(mid, inset, mid, size - inset);
+		g.drawLine(inset, mid, size - inset, mid);
+		g.dispose();
+		return new ImageIcon(image);
+	}
+}
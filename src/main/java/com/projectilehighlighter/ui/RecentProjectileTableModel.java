@@ -0,0 +1,157 @@
+package com.projectilehighlighter.ui;
+
+import com.projectilehighlighter.model.RecentProjectile;
+import com.projectilehighlighter.util.ProjectileNames;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Table model for the recent projectiles list, newest first.
+ * Updates fire row-level events so the table only repaints rows that moved,
+ * and display strings are resolved once per insert rather than per paint.
+ */
+public class RecentProjectileTableModel extends AbstractTableModel
+{
+	static final int ADD_COLUMN = 0;
+	static final int ID_COLUMN = 1;
+	static final int SOURCE_COLUMN = 2;
+
+	private final List<Row> rows = new ArrayList<>();
+	private final int maxRows;
+
+	public RecentProjectileTableModel(int maxRows)
+	{
+		this.maxRows = maxRows;
+	}
+
+	/**
+	 * Insert a projectile at the top, moving it there if it is already listed,
+	 * and drop the oldest row once the list is full.
+	 */
+	public void upsert(RecentProjectile projectile)
+	{
+		Row row = new Row(projectile);
+		int existing = indexOf(projectile.getProjectileId());
+
+		if (existing == 0)
+		{
+			rows.set(0, row);
+			fireTableRowsUpdated(0, 0);
+			return;
+		}
+
+		if (existing > 0)
+		{
+			rows.remove(existing);
+			fireTableRowsDeleted(existing, existing);
+		}
+
+		rows.add(0, row);
+		fireTableRowsInserted(0, 0);
+
+		if (rows.size() > maxRows)
+		{
+			int last = rows.size() - 1;
+			rows.remove(last);
+			fireTableRowsDeleted(last, last);
+		}
+	}
+
+	public void clear()
+	{
+		if (rows.isEmpty())
+		{
+			return;
+		}
+
+		int last = rows.size() - 1;
+		rows.clear();
+		fireTableRowsDeleted(0, last);
+	}
+
+	public boolean isEmpty()
+	{
+		return rows.isEmpty();
+	}
+
+	public RecentProjectile getProjectile(int rowIndex)
+	{
+		return rows.get(rowIndex).projectile;
+	}
+
+	String getToolTip(int rowIndex, int columnIndex)
+	{
+		Row row = rows.get(rowIndex);
+		switch (columnIndex)
+		{
+			case ADD_COLUMN:
+				return "Add to group";
+			case ID_COLUMN:
+				return row.idToolTip;
+			default:
+				return row.sourceText;
+		}
+	}
+
+	@Override
+	public int getRowCount()
+	{
+		return rows.size();
+	}
+
+	@Override
+	public int getColumnCount()
+	{
+		return 3;
+	}
+
+	@Override
+	public Object getValueAt(int rowIndex, int columnIndex)
+	{
+		Row row = rows.get(rowIndex);
+		switch (columnIndex)
+		{
+			case ADD_COLUMN:
+				return null;
+			case ID_COLUMN:
+				return row.idText;
+			default:
+				return row.sourceText;
+		}
+	}
+
+	private int indexOf(int projectileId)
+	{
+		for (int i = 0; i < rows.size(); i++)
+		{
+			if (rows.get(i).projectile.getProjectileId() == projectileId)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static final class Row
+	{
+		private final RecentProjectile projectile;
+		private final String idText;
+		private final String idToolTip;
+		private final String sourceText;
+
+		private Row(RecentProjectile projectile)
+		{
+			int projectileId = projectile.getProjectileId();
+			String projectileName = ProjectileNames.getName(projectileId);
+
+			this.projectile = projectile;
+			this.idText = String.valueOf(projectileId);
+			this.idToolTip = projectileName != null ? projectileName : "Projectile " + projectileId;
+			this.sourceText = projectileName != null && !projectileName.isEmpty()
+				? projectile.getSourceDisplay() + " • " + projectileName
+				: projectile.getSourceDisplay();
+		}
+	}
+}
@@ -0,0 +1,358 @@
+package com.projectilehighlighter.util;
+
+import net.runelite.api.Actor;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Tile-bucketed index of named actors, used for nearest-actor source attribution.
+ * Built at most once per game tick; nearest queries walk outward ring by ring
+ * from the query bucket and stop as soon as no farther bucket can win.
+ * Actor names are resolved once per build rather than once per query.
+ */
+public final class ActorSpatialIndex
+{
+    // 8x8 tile buckets
+    private static final int BUCKET_TILE_SHIFT = 3;
+    private static final int BUCKET_TILES = 1 << BUCKET_TILE_SHIFT;
+    private static final int LOCAL_BUCKET_SHIFT = 7 + BUCKET_TILE_SHIFT;
+    private static final int LOCAL_BUCKET_UNITS = 1 << LOCAL_BUCKET_SHIFT;
+    private static final int NONE = -1;
+
+    private Actor[] actors = new Actor[32];
+    private String[] names = new String[32];
+    private int[] worldX = new int[32];
+    private int[] worldY = new int[32];
+    private int[] plane = new int[32];
+    private int[] localX = new int[32];
+    private int[] localY = new int[32];
+    private int[] nextWorld = new int[32];
+    private int[] nextLocal = new int[32];
+    private int count;
+
+    // World grid covers the bounding box of the indexed actors
+    private int[] worldBuckets = new int[0];
+    private int worldOriginX;
+    private int worldOriginY;
+    private int worldBucketsX;
+    private int worldBucketsY;
+
+    // Local grid covers the bounding box of the indexed actors' scene positions
+    private int[] localBuckets = new int[0];
+    private int localOriginBx;
+    private int localOriginBy;
+    private int localBucketsX;
+    private int localBucketsY;
+
+    private int lastDistance;
+
+    /**
+     * Rebuild the index from the given actors. Actors without a name
+     * (as resolved by {@code namer}) or without a location are skipped.
+     */
+    public void build(Iterable<? extends Actor> source, Function<Actor, String> namer)
+    {
+        count = 0;
+        int minWx = Integer.MAX_VALUE;
+        int minWy = Integer.MAX_VALUE;
+        int maxWx = Integer.MIN_VALUE;
+        int maxWy = Integer.MIN_VALUE;
+        int minLbx = Integer.MAX_VALUE;
+        int minLby = Integer.MAX_VALUE;
+        int maxLbx = Integer.MIN_VALUE;
+        int maxLby = Integer.MIN_VALUE;
+
+        for (Actor actor : source)
+        {
+            if (actor == null)
+            {
+                continue;
+            }
+
+            String name = namer.apply(actor);
+            if (name == null || name.isEmpty())
+            {
+                continue;
+            }
+
+            WorldPoint wp = actor.getWorldLocation();
+            LocalPoint lp = actor.getLocalLocation();
+            if (wp == null || lp == null)
+            {
+                continue;
+            }
+
+            ensureCapacity(count + 1);
+            actors[count] = actor;
+            names[count] = name;
+            worldX[count] = wp.getX();
+            worldY[count] = wp.getY();
+            plane[count] = wp.getPlane();
+            localX[count] = lp.getX();
+            localY[count] = lp.getY();
+
+            minWx = Math.min(minWx, wp.getX());
+            minWy = Math.min(minWy, wp.getY());
+            maxWx = Math.max(maxWx, wp.getX());
+            maxWy = Math.max(maxWy, wp.getY());
+            minLbx = Math.min(minLbx, lp.getX() >> LOCAL_BUCKET_SHIFT);
+            minLby = Math.min(minLby, lp.getY() >> LOCAL_BUCKET_SHIFT);
+            maxLbx = Math.max(maxLbx, lp.getX() >> LOCAL_BUCKET_SHIFT);
+            maxLby = Math.max(maxLby, lp.getY() >> LOCAL_BUCKET_SHIFT);
+            count++;
+        }
+
+        if (count == 0)
+        {
+            worldBucketsX = worldBucketsY = 0;
+            localBucketsX = localBucketsY = 0;
+            return;
+        }
+
+        worldOriginX = minWx;
+        worldOriginY = minWy;
+        worldBucketsX = ((maxWx - minWx) >> BUCKET_TILE_SHIFT) + 1;
+        worldBucketsY = ((maxWy - minWy) >> BUCKET_TILE_SHIFT) + 1;
+        worldBuckets = resetBuckets(worldBuckets, worldBucketsX * worldBucketsY);
+
+        localOriginBx = minLbx;
+        localOriginBy = minLby;
+        localBucketsX = maxLbx - minLbx + 1;
+        localBucketsY = maxLby - minLby + 1;
+        localBuckets = resetBuckets(localBuckets, localBucketsX * localBucketsY);
+
+        for (int i = 0; i < count; i++)
+        {
+            int wb = ((worldY[i] - worldOriginY) >> BUCKET_TILE_SHIFT) * worldBucketsX
+                + ((worldX[i] - worldOriginX) >> BUCKET_TILE_SHIFT);
+            nextWorld[i] = worldBuckets[wb];
+            worldBuckets[wb] = i;
+
+            int lb = ((localY[i] >> LOCAL_BUCKET_SHIFT) - localOriginBy) * localBucketsX
+                + ((localX[i] >> LOCAL_BUCKET_SHIFT) - localOriginBx);
+            nextLocal[i] = localBuckets[lb];
+            localBuckets[lb] = i;
+        }
+    }
+
+    /**
+     * Drop actor references so the index does not keep despawned actors alive.
+     */
+    public void clear()
+    {
+        Arrays.fill(actors, 0, count, null);
+        Arrays.fill(names, 0, count, null);
+        count = 0;
+        worldBucketsX = worldBucketsY = 0;
+        localBucketsX = localBucketsY = 0;
+    }
+
+    /**
+     * Find the actor closest (Chebyshev tile distance) to a world point on the same plane.
+     * @return the slot of the closest actor, or -1 if none; see {@link #getLastDistance()}
+     */
+    public int findClosest(WorldPoint point, Actor excluded)
+    {
+        int best = NONE;
+        int bestDistance = Integer.MAX_VALUE;
+        if (worldBucketsX == 0)
+        {
+            return NONE;
+        }
+
+        int qx = point.getX() - worldOriginX;
+        int qy = point.getY() - worldOriginY;
+        int qbx = qx >> BUCKET_TILE_SHIFT;
+        int qby = qy >> BUCKET_TILE_SHIFT;
+        int maxRing = maxRing(qbx, qby, worldBucketsX, worldBucketsY);
+
+        // Rings that miss the grid entirely hold nothing, so start at the first one that reaches it
+        for (int ring = minRing(qbx, qby, worldBucketsX, worldBucketsY); ring <= maxRing; ring++)
+        {
+            int lastRow = Math.min(qby + ring, worldBucketsY - 1);
+            for (int by = Math.max(qby - ring, 0); by <= lastRow; by++)
+            {
+                // Edge rows are scanned across the part inside the grid, other rows only at both ends
+                boolean edgeRow = by == qby - ring || by == qby + ring;
+                int step = edgeRow ? 1 : ring * 2;
+                int firstColumn = edgeRow ? Math.max(qbx - ring, 0) : qbx - ring;
+                int lastColumn = edgeRow ? Math.min(qbx + ring, worldBucketsX - 1) : qbx + ring;
+                for (int bx = firstColumn; bx <= lastColumn; bx += step)
+                {
+                    if (bx < 0 || bx >= worldBucketsX)
+                    {
+                        continue;
+                    }
+
+                    for (int i = worldBuckets[by * worldBucketsX + bx]; i != NONE; i = nextWorld[i])
+                    {
+                        if (actors[i] == excluded || plane[i] != point.getPlane())
+                        {
+                            continue;
+                        }
+
+                        int distance = Math.max(Math.abs(worldX[i] - point.getX()), Math.abs(worldY[i] - point.getY()));
+                        if (distance < bestDistance)
+                        {
+                            best = i;
+                            bestDistance = distance;
+                            if (distance == 0)
+                            {
+                                lastDistance = 0;
+                                return best;
+                            }
+                        }
+                    }
+                }
+            }
+
+            // Anything in the next ring is at least ring * BUCKET_TILES + 1 tiles away
+            if (best != NONE && bestDistance <= ring * BUCKET_TILES)
+            {
+                break;
+            }
+        }
+
+        lastDistance = bestDistance;
+        return best;
+    }
+
+    /**
+     * Find the actor closest (Euclidean local distance) to a local point.
+     * @return the slot of the closest actor, or -1 if none; see {@link #getLastDistance()}
+     */
+    public int findClosest(LocalPoint point, Actor excluded)
+    {
+        int best = NONE;
+        int bestDistance = Integer.MAX_VALUE;
+        if (localBucketsX == 0)
+        {
+            return NONE;
+        }
+
+        int qbx = (point.getX() >> LOCAL_BUCKET_SHIFT) - localOriginBx;
+        int qby = (point.getY() >> LOCAL_BUCKET_SHIFT) - localOriginBy;
+        int maxRing = maxRing(qbx, qby, localBucketsX, localBucketsY);
+
+        // Rings that miss the grid entirely hold nothing, so start at the first one that reaches it
+        for (int ring = minRing(qbx, qby, localBucketsX, localBucketsY); ring <= maxRing; ring++)
+        {
+            int lastRow = Math.min(qby + ring, localBucketsY - 1);
+            for (int by = Math.max(qby - ring, 0); by <= lastRow; by++)
+            {
+                // Edge rows are scanned across the part inside the grid, other rows only at both ends
+                boolean edgeRow = by == qby - ring || by == qby + ring;
+                int step = edgeRow ? 1 : ring * 2;
+                int firstColumn = edgeRow ? Math.max(qbx - ring, 0) : qbx - ring;
+                int lastColumn = edgeRow ? Math.min(qbx + ring, localBucketsX - 1) : qbx + ring;
+                for (int bx = firstColumn; bx <= lastColumn; bx += step)
+                {
+                    if (bx < 0 || bx >= localBucketsX)
+                    {
+                        continue;
+                    }
+
+                    for (int i = localBuckets[by * localBucketsX + bx]; i != NONE; i = nextLocal[i])
+                    {
+                        if (actors[i] == excluded)
+                        {
+                            continue;
+                        }
+
+                        int dx = localX[i] - point.getX();
+                        int dy = localY[i] - point.getY();
+                        int distance = (int) Math.sqrt((long) dx * dx + (long) dy * dy);
+                        if (distance < bestDistance)
+                        {
+                            best = i;
+                            bestDistance = distance;
+                            if (distance == 0)
+                            {
+                                lastDistance = 0;
+                                return best;
+                            }
+                        }
+                    }
+                }
+            }
+
+            // Anything in the next ring is more than ring * LOCAL_BUCKET_UNITS away
+            if (best != NONE && bestDistance <= ring * LOCAL_BUCKET_UNITS)
+            {
+                break;
+            }
+        }
+
+        lastDistance = bestDistance;
+        return best;
+    }
+
+    public Actor getActor(int slot)
+    {
+        return actors[slot];
+    }
+
+    public String getName(int slot)
+    {
+        return names[slot];
+    }
+
+    /**
+     * Distance of the result returned by the most recent successful query.
+     */
+    public int getLastDistance()
+    {
+        return lastDistance;
+    }
+
+    public int size()
+    {
+        return count;
+    }
+
+    /**
+     * Chebyshev distance in buckets from the query bucket to the nearest grid bucket.
+     */
+    private static int minRing(int qbx, int qby, int bucketsX, int bucketsY)
+    {
+        int dx = qbx < 0 ? -qbx : Math.max(0, qbx - (bucketsX - 1));
+        int dy = qby < 0 ? -qby : Math.max(0, qby - (bucketsY - 1));
+        return Math.max(dx, dy);
+    }
+
+    private static int maxRing(int qbx, int qby, int bucketsX, int bucketsY)
+    {
+        int dx = Math.max(Math.abs(qbx), Math.abs(bucketsX - 1 - qbx));
+        int dy = Math.max(Math.abs(qby), Math.abs(bucketsY - 1 - qby));
+        return Math.max(dx, dy);
+    }
+
+    private static int[] resetBuckets(int[] buckets, int size)
+    {
+        int[] result = buckets.length >= size ? buckets : new int[size];
+        Arrays.fill(result, 0, size, NONE);
+        return result;
+    }
+
+    private void ensureCapacity(int needed)
+    {
+        if (needed <= actors.length)
+        {
+            return;
+        }
+
+        int newLength = Math.max(needed, actors.length * 2);
+        actors = Arrays.copyOf(actors, newLength);
+        names = Arrays.copyOf(names, newLength);
+        worldX = Arrays.copyOf(worldX, newLength);
+        worldY = Arrays.copyOf(worldY, newLength);
+        plane = Arrays.copyOf(plane, newLength);
+        localX = Arrays.copyOf(localX, newLength);
+        localY = Arrays.copyOf(localY, newLength);
+        nextWorld = Arrays.copyOf(nextWorld, newLength);
+        nextLocal = Arrays.copyOf(nextLocal, newLength);
+    }
+}
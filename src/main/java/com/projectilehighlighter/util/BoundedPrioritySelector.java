@@ -0,0 +1,116 @@
+package com.projectilehighlighter.util;
+
+/**
+ * Keeps the {@code limit} items with the lowest priority keys out of any number offered,
+ * using a bounded max-heap so each offer is O(log limit) and nothing is fully sorted.
+ * Items are int indexes into the caller's own arrays, so nothing is boxed. Selected
+ * items come back in heap order, not sorted. Arrays are reused between rounds.
+ */
+public final class BoundedPrioritySelector
+{
+    private long[] keys = new long[16];
+    private int[] items = new int[16];
+    private int size;
+    private int limit;
+
+    /**
+     * Start a new selection round.
+     */
+    public void reset(int limit)
+    {
+        this.size = 0;
+        this.limit = limit;
+        if (limit <= keys.length)
+        {
+            return;
+        }
+
+        int capacity = Integer.highestOneBit(limit - 1) << 1;
+        keys = new long[capacity];
+        items = new int[capacity];
+    }
+
+    /**
+     * Offer an item; lower keys win.
+     */
+    public void offer(int item, long key)
+    {
+        if (limit <= 0)
+        {
+            return;
+        }
+
+        if (size < limit)
+        {
+            keys[size] = key;
+            items[size] = item;
+            siftUp(size++);
+        }
+        else if (key < keys[0])
+        {
+            // Replace the current worst selection
+            keys[0] = key;
+            items[0] = item;
+            siftDown(0);
+        }
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public int get(int index)
+    {
+        return items[index];
+    }
+
+    private void siftUp(int index)
+    {
+        while (index > 0)
+        {
+            int parent = (index - 1) >>> 1;
+            if (keys[parent] >= keys[index])
+            {
+                return;
+            }
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index)
+    {
+        while (true)
+        {
+            int largest = index;
+            int left = index * 2 + 1;
+            int right = left + 1;
+            if (left < size && keys[left] > keys[largest])
+            {
+                largest = left;
+            }
+            if (right < size && keys[right] > keys[largest])
+            {
+                largest = right;
+            }
+            if (largest == index)
+            {
+                return;
+            }
+            swap(index, largest);
+            index = largest;
+        }
+    }
+
+    private void swap(int a, int b)
+    {
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+
+        int item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+    }
+}
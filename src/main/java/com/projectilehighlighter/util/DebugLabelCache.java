@@ -0,0 +1,128 @@
+package com.projectilehighlighter.util;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Pre-rendered debug ID labels, white text with the black drop shadow baked in,
+ * so each label costs one drawImage. Keyed by projectile ID in an open-addressed
+ * int table; everything is dropped when the font or text size changes, or when
+ * the table fills up. Client thread only.
+ */
+public final class DebugLabelCache
+{
+    private static final int CAPACITY = 1024;
+    private static final int EMPTY_KEY = Integer.MIN_VALUE;
+
+    // Twice the capacity keeps probe chains short
+    private final int[] keys = new int[CAPACITY * 2];
+    private final BufferedImage[] images = new BufferedImage[CAPACITY * 2];
+    private final int mask = CAPACITY * 2 - 1;
+    private int size;
+
+    private Font font;
+    private Font baseFont;
+    private int textSize;
+    private int ascent;
+
+    public DebugLabelCache()
+    {
+        Arrays.fill(keys, EMPTY_KEY);
+    }
+
+    /**
+     * Get the label image for a projectile ID, rendering it on first use.
+     * The text baseline sits {@link #getAscent()} pixels below the top of the image,
+     * and the text itself is one pixel narrower than the image.
+     */
+    public BufferedImage get(Graphics2D graphics, int projectileId, int textSize)
+    {
+        Font currentFont = graphics.getFont();
+        if (textSize != this.textSize || !currentFont.equals(baseFont))
+        {
+            clear();
+            this.baseFont = currentFont;
+            this.textSize = textSize;
+            this.font = currentFont.deriveFont(Font.BOLD, (float) textSize);
+            this.ascent = graphics.getFontMetrics(font).getAscent();
+        }
+
+        int slot = (projectileId * 0x9E3779B9 >>> 16) & mask;
+        while (keys[slot] != EMPTY_KEY)
+        {
+            if (keys[slot] == projectileId)
+            {
+                return images[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == CAPACITY)
+        {
+            clear();
+            return get(graphics, projectileId, textSize);
+        }
+
+        BufferedImage image = render(graphics, projectileId);
+        keys[slot] = projectileId;
+        images[slot] = image;
+        size++;
+        return image;
+    }
+
+    public int getAscent()
+    {
+        return ascent;
+    }
+
+    public void clear()
+    {
+        Arrays.fill(keys, EMPTY_KEY);
+        Arrays.fill(images, null);
+        size = 0;
+    }
+
+    private BufferedImage render(Graphics2D graphics, int projectileId)
+    {
+        String idText = String.valueOf(projectileId);
+        FontMetrics metrics = graphics.getFontMetrics(font);
+        int width = metrics.stringWidth(idText) + 1;
+        int height = metrics.getAscent() + metrics.getDescent() + 1;
+
+        GraphicsConfiguration gc = graphics.getDeviceConfiguration();
+        BufferedImage image = gc != null
+            ? gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+            : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+
+        Graphics2D g = image.createGraphics();
+        try
+        {
+            // Keep the text rendering of the surface the label ends up on
+            Object textAntialiasing = graphics.getRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING);
+            if (textAntialiasing != null)
+            {
+                g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, textAntialiasing);
+            }
+            g.setFont(font);
+
+            // Draw text shadow for visibility
+            g.setColor(Color.BLACK);
+            g.drawString(idText, 1, ascent + 1);
+            g.setColor(Color.WHITE);
+            g.drawString(idText, 0, ascent);
+        }
+        finally
+        {
+            g.dispose();
+        }
+
+        return image;
+    }
+}
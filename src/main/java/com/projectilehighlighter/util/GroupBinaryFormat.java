@@ -0,0 +1,224 @@
+package com.projectilehighlighter.util;
+
+import com.projectilehighlighter.ProjectileHighlighterConfig.OverlayStyle;
+import com.projectilehighlighter.model.ProjectileEntry;
+import com.projectilehighlighter.model.ProjectileGroup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of the group library, as an alternative to groups.json.
+ * <pre>
+ * magic      int      "PHGB"
+ * version    varint
+ * strings    varint count, then per string: varint byte length, UTF-8 bytes
+ * groups     varint count, then per group:
+ *   id       varint string index
+ *   name     varint string index + 1, 0 for none
+ *   enabled  byte
+ *   entries  varint count, then per entry:
+ *     id     zigzag varint
+ *     name   varint string index + 1, 0 for none
+ *     argb   int
+ *     style  byte ordinal + 1, 0 for none
+ * </pre>
+ * Style ordinals follow {@link OverlayStyle} declaration order, so reordering that
+ * enum needs a new format version.
+ */
+final class GroupBinaryFormat
+{
+    private static final int MAGIC = 0x50484742;
+    private static final int VERSION = 1;
+    // Fewest bytes each item can take, to reject counts the data can't hold before allocating for them
+    private static final int MIN_STRING_BYTES = 1;
+    private static final int MIN_GROUP_BYTES = 4;
+    private static final int MIN_ENTRY_BYTES = 7;
+
+    private GroupBinaryFormat()
+    {
+    }
+
+    static void write(List<ProjectileGroup> groups, OutputStream out) throws IOException
+    {
+        // Intern every string first, so repeated names are stored once
+        Map<String, Integer> stringIndexes = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (ProjectileGroup group : groups)
+        {
+            intern(group.getId(), stringIndexes, strings);
+            intern(group.getName(), stringIndexes, strings);
+            if (group.getEntries() != null)
+            {
+                for (ProjectileEntry entry : group.getEntries())
+                {
+                    intern(entry.getCustomName(), stringIndexes, strings);
+                }
+            }
+        }
+
+        writeInt(out, MAGIC);
+        writeVarint(out, VERSION);
+
+        writeVarint(out, strings.size());
+        for (String string : strings)
+        {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, bytes.length);
+            out.write(bytes);
+        }
+
+        writeVarint(out, groups.size());
+        for (ProjectileGroup group : groups)
+        {
+            writeVarint(out, stringIndexes.get(group.getId()));
+            writeVarint(out, optionalIndex(group.getName(), stringIndexes));
+            out.write(group.isEnabled() ? 1 : 0);
+
+            writeVarint(out, group.getEntryCount());
+            if (group.getEntries() == null)
+            {
+                continue;
+            }
+            for (ProjectileEntry entry : group.getEntries())
+            {
+                int id = entry.getProjectileId();
+                writeVarint(out, (id << 1) ^ (id >> 31));
+                writeVarint(out, optionalIndex(entry.getCustomName(), stringIndexes));
+                writeInt(out, entry.getArgb());
+                out.write(entry.getOverlayStyle() == null ? 0 : entry.getOverlayStyle().ordinal() + 1);
+            }
+        }
+    }
+
+    /**
+     * Decode a library written by {@link #write}.
+     * @throws IOException if the data is not in this format or is cut short
+     */
+    static List<ProjectileGroup> read(ByteBuffer buffer) throws IOException
+    {
+        try
+        {
+            if (buffer.getInt() != MAGIC)
+            {
+                throw new IOException("Not a binary groups file");
+            }
+            int version = readVarint(buffer);
+            if (version != VERSION)
+            {
+                throw new IOException("Unsupported binary groups version " + version);
+            }
+
+            String[] strings = new String[readCount(buffer, MIN_STRING_BYTES)];
+            byte[] scratch = new byte[64];
+            for (int i = 0; i < strings.length; i++)
+            {
+                int length = readCount(buffer, 1);
+                if (length > scratch.length)
+                {
+                    scratch = new byte[length];
+                }
+                buffer.get(scratch, 0, length);
+                strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+
+            OverlayStyle[] styles = OverlayStyle.values();
+            int groupCount = readCount(buffer, MIN_GROUP_BYTES);
+            List<ProjectileGroup> groups = new ArrayList<>(groupCount);
+            for (int i = 0; i < groupCount; i++)
+            {
+                String id = strings[readVarint(buffer)];
+                String name = optionalString(readVarint(buffer), strings);
+                boolean enabled = buffer.get() != 0;
+
+                int entryCount = readCount(buffer, MIN_ENTRY_BYTES);
+                List<ProjectileEntry> entries = new ArrayList<>(entryCount);
+                for (int j = 0; j < entryCount; j++)
+                {
+                    int zigzag = readVarint(buffer);
+                    int projectileId = (zigzag >>> 1) ^ -(zigzag & 1);
+                    String customName = optionalString(readVarint(buffer), strings);
+                    int argb = buffer.getInt();
+                    int style = buffer.get();
+                    entries.add(new ProjectileEntry(projectileId, customName, argb & 0xFFFFFF, argb >>> 24,
+                        style == 0 ? null : styles[style - 1]));
+                }
+                groups.add(new ProjectileGroup(id, name, enabled, entries));
+            }
+            return groups;
+        }
+        catch (RuntimeException e)
+        {
+            // Underflow or an index out of range; either way the file is not usable
+            throw new IOException("Corrupt binary groups file", e);
+        }
+    }
+
+    private static void intern(String string, Map<String, Integer> indexes, List<String> strings)
+    {
+        if (string != null && !indexes.containsKey(string))
+        {
+            indexes.put(string, strings.size());
+            strings.add(string);
+        }
+    }
+
+    private static int optionalIndex(String string, Map<String, Integer> indexes)
+    {
+        return string == null ? 0 : indexes.get(string) + 1;
+    }
+
+    private static String optionalString(int index, String[] strings)
+    {
+        return index == 0 ? null : strings[index - 1];
+    }
+
+    private static void writeInt(OutputStream out, int value) throws IOException
+    {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static void writeVarint(OutputStream out, int value) throws IOException
+    {
+        while ((value & ~0x7F) != 0)
+        {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readCount(ByteBuffer buffer, int minBytesEach) throws IOException
+    {
+        int count = readVarint(buffer);
+        if (count < 0 || (long) count * minBytesEach > buffer.remaining())
+        {
+            throw new IOException("Count " + count + " does not fit in the remaining data");
+        }
+        return count;
+    }
+
+    private static int readVarint(ByteBuffer buffer) throws IOException
+    {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7)
+        {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0)
+            {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
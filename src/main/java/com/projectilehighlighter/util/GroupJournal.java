@@ -0,0 +1,442 @@
+package com.projectilehighlighter.util;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.projectilehighlighter.model.ProjectileEntry;
+import com.projectilehighlighter.model.ProjectileGroup;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of group edits kept next to the groups file, one compact JSON record
+ * per line, read and written through {@link GroupJsonAdapters} like the groups file.
+ * Records are written by the edits themselves, not worked out afterwards.
+ * The first line names the snapshot file the records apply to, by its length and
+ * CRC32. A journal whose header doesn't match the snapshot was left behind by an
+ * interrupted compaction, and its records are already part of the newer snapshot,
+ * so it is ignored rather than replayed over it. Records can be built on any thread;
+ * the file itself is only touched from the storage writer thread, and from the
+ * loader before the writer starts.
+ */
+@Slf4j
+class GroupJournal
+{
+    private static final String OP = "op";
+    private static final String OP_SNAPSHOT = "snapshot";
+    private static final String OP_ADD_GROUP = "addGroup";
+    private static final String OP_REMOVE_GROUP = "removeGroup";
+    private static final String OP_REPLACE_GROUP = "replaceGroup";
+    private static final String OP_SET_GROUP = "setGroup";
+    private static final String OP_PUT_ENTRY = "putEntry";
+    private static final String OP_REMOVE_ENTRY = "removeEntry";
+
+    private final File file;
+    private final Gson gson;
+
+    // Snapshot the records are written against
+    private long snapshotId;
+    // False while the file may hold records that the next load would not replay,
+    // such as a stale header or a torn last line; only a reset makes it usable again
+    private boolean appendable;
+
+    GroupJournal(File file, Gson gson)
+    {
+        this.file = file;
+        this.gson = gson;
+    }
+
+    /**
+     * Identity of a snapshot file's contents, as recorded in the journal header.
+     */
+    static long snapshotId(long length, long crc32)
+    {
+        return (length << 32) ^ crc32;
+    }
+
+    /**
+     * Current journal size in bytes, 0 if there is none.
+     */
+    long size()
+    {
+        return file.length();
+    }
+
+    /**
+     * Whether new records can be appended, or the next write must be a full snapshot
+     * followed by {@link #reset(long)}.
+     */
+    boolean isAppendable()
+    {
+        return appendable;
+    }
+
+    /**
+     * Apply every record written against the given snapshot to {@code groups}, in order.
+     * A malformed record, such as a line cut short by a crash, ends the replay.
+     * @return the number of records applied
+     */
+    int replay(List<ProjectileGroup> groups, long snapshotId)
+    {
+        this.snapshotId = snapshotId;
+        this.appendable = false;
+        if (!file.exists() || file.length() == 0)
+        {
+            appendable = true;
+            return 0;
+        }
+
+        int applied = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)))
+        {
+            Record header = readRecord(reader.readLine());
+            if (!OP_SNAPSHOT.equals(header.op) || header.snapshotId != snapshotId)
+            {
+                log.info("Ignoring group journal written against an earlier snapshot");
+                return 0;
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                if (line.isEmpty())
+                {
+                    continue;
+                }
+                apply(groups, readRecord(line));
+                applied++;
+            }
+            appendable = true;
+        }
+        catch (IOException e)
+        {
+            log.error("Failed to read group journal", e);
+        }
+        catch (Exception e)
+        {
+            log.warn("Stopped group journal replay at a malformed record after {} records", applied, e);
+        }
+        return applied;
+    }
+
+    /**
+     * Append records, one per line, starting the file with its snapshot header if
+     * it is empty. Returns once they are on disk.
+     */
+    void append(List<String> lines) throws IOException
+    {
+        StringBuilder text = new StringBuilder();
+        if (file.length() == 0)
+        {
+            long id = snapshotId;
+            text.append(record(OP_SNAPSHOT, out -> out.name("id").value(id))).append('\n');
+        }
+        for (String line : lines)
+        {
+            text.append(line).append('\n');
+        }
+
+        // A failed write may leave part of a record behind
+        appendable = false;
+        ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND))
+        {
+            while (buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            }
+            // An edit only counts as saved once its record is on disk
+            channel.force(true);
+        }
+        appendable = true;
+    }
+
+    /**
+     * Drop every record, after their effect has been written into a new snapshot, and
+     * write further records against that snapshot. If this fails the journal stays
+     * unappendable, and its stale header keeps the next load from replaying it.
+     */
+    void reset(long snapshotId) throws IOException
+    {
+        appendable = false;
+        this.snapshotId = snapshotId;
+        if (file.exists())
+        {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE))
+            {
+                channel.truncate(0);
+                channel.force(true);
+            }
+        }
+        appendable = true;
+    }
+
+    String addGroup(int index, ProjectileGroup group)
+    {
+        return record(OP_ADD_GROUP, out -> {
+            out.name("index").value(index);
+            out.name("value");
+            GroupJsonAdapters.GROUP.write(out, group);
+        });
+    }
+
+    String removeGroup(String groupId)
+    {
+        return record(OP_REMOVE_GROUP, out -> out.name("group").value(groupId));
+    }
+
+    String replaceGroup(ProjectileGroup group)
+    {
+        return record(OP_REPLACE_GROUP, out -> {
+            out.name("value");
+            GroupJsonAdapters.GROUP.write(out, group);
+        });
+    }
+
+    String setGroup(ProjectileGroup group)
+    {
+        return record(OP_SET_GROUP, out -> {
+            out.name("group").value(group.getId());
+            out.name("name").value(group.getName());
+            out.name("enabled").value(group.isEnabled());
+        });
+    }
+
+    String putEntry(String groupId, int previousId, ProjectileEntry entry)
+    {
+        return record(OP_PUT_ENTRY, out -> {
+            out.name("group").value(groupId);
+            out.name("previousId").value(previousId);
+            out.name("value");
+            GroupJsonAdapters.ENTRY.write(out, entry);
+        });
+    }
+
+    String removeEntry(String groupId, int projectileId)
+    {
+        return record(OP_REMOVE_ENTRY, out -> {
+            out.name("group").value(groupId);
+            out.name("projectileId").value(projectileId);
+        });
+    }
+
+    /**
+     * Replace the entry that had {@code previousId}, so an ID change keeps its place,
+     * or append it. Shared with the live edit so replay does exactly the same thing.
+     */
+    static void putEntry(ProjectileGroup group, int previousId, ProjectileEntry entry)
+    {
+        List<ProjectileEntry> entries = entriesOf(group);
+        for (int i = 0; i < entries.size(); i++)
+        {
+            if (entries.get(i).getProjectileId() == previousId)
+            {
+                entries.set(i, entry);
+                return;
+            }
+        }
+        entries.add(entry);
+    }
+
+    private static void apply(List<ProjectileGroup> groups, Record record)
+    {
+        switch (record.op)
+        {
+            case OP_ADD_GROUP:
+                groups.add(Math.min(record.index, groups.size()), record.group);
+                break;
+            case OP_REMOVE_GROUP:
+                groups.removeIf(g -> g.getId().equals(record.groupId));
+                break;
+            case OP_REPLACE_GROUP:
+            {
+                int index = indexOf(groups, record.group.getId());
+                if (index >= 0)
+                {
+                    groups.set(index, record.group);
+                }
+                break;
+            }
+            case OP_SET_GROUP:
+            {
+                int index = indexOf(groups, record.groupId);
+                if (index >= 0)
+                {
+                    ProjectileGroup group = groups.get(index);
+                    group.setName(record.name);
+                    group.setEnabled(record.enabled);
+                }
+                break;
+            }
+            case OP_PUT_ENTRY:
+            {
+                int index = indexOf(groups, record.groupId);
+                if (index >= 0)
+                {
+                    putEntry(groups.get(index), record.previousId, record.entry);
+                }
+                break;
+            }
+            case OP_REMOVE_ENTRY:
+            {
+                int index = indexOf(groups, record.groupId);
+                if (index >= 0)
+                {
+                    groups.get(index).removeEntryById(record.projectileId);
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown journal record: " + record.op);
+        }
+    }
+
+    /**
+     * One line of JSON with the op first, then the fields {@code body} writes.
+     */
+    private String record(String op, RecordBody body)
+    {
+        StringWriter text = new StringWriter();
+        try (JsonWriter out = gson.newJsonWriter(text))
+        {
+            out.beginObject();
+            out.name(OP).value(op);
+            body.write(out);
+            out.endObject();
+        }
+        catch (IOException e)
+        {
+            // A StringWriter never throws
+            throw new IllegalStateException(e);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Parse one line. The op comes first, since it decides what the value is.
+     * @throws IllegalArgumentException if the line is not a complete record
+     */
+    private Record readRecord(String line)
+    {
+        Record record = new Record();
+        try (JsonReader in = gson.newJsonReader(new StringReader(line)))
+        {
+            in.beginObject();
+            if (!OP.equals(in.nextName()))
+            {
+                throw new IllegalArgumentException("Journal record does not start with its op");
+            }
+            record.op = in.nextString();
+            while (in.hasNext())
+            {
+                switch (in.nextName())
+                {
+                    case "id":
+                        record.snapshotId = in.nextLong();
+                        break;
+                    case "index":
+                        record.index = in.nextInt();
+                        break;
+                    case "group":
+                        record.groupId = in.nextString();
+                        break;
+                    case "name":
+                        record.name = in.nextString();
+                        break;
+                    case "enabled":
+                        record.enabled = in.nextBoolean();
+                        break;
+                    case "previousId":
+                        record.previousId = in.nextInt();
+                        break;
+                    case "projectileId":
+                        record.projectileId = in.nextInt();
+                        break;
+                    case "value":
+                        if (OP_PUT_ENTRY.equals(record.op))
+                        {
+                            record.entry = GroupJsonAdapters.ENTRY.read(in);
+                        }
+                        else
+                        {
+                            record.group = GroupJsonAdapters.GROUP.read(in);
+                        }
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+        }
+        catch (IOException | IllegalStateException e)
+        {
+            // Includes a line cut short, which ends before the object does
+            throw new IllegalArgumentException("Malformed journal record", e);
+        }
+
+        boolean needsGroup = OP_ADD_GROUP.equals(record.op) || OP_REPLACE_GROUP.equals(record.op);
+        if ((needsGroup && record.group == null) || (OP_PUT_ENTRY.equals(record.op) && record.entry == null))
+        {
+            throw new IllegalArgumentException("Journal record " + record.op + " has no value");
+        }
+        return record;
+    }
+
+    @FunctionalInterface
+    private interface RecordBody
+    {
+        void write(JsonWriter out) throws IOException;
+    }
+
+    /**
+     * Fields of a parsed record; which ones are set depends on the op.
+     */
+    private static final class Record
+    {
+        private String op;
+        private long snapshotId;
+        private int index;
+        private String groupId;
+        private String name;
+        private boolean enabled = true;
+        private int previousId;
+        private int projectileId;
+        private ProjectileGroup group;
+        private ProjectileEntry entry;
+    }
+
+    private static int indexOf(List<ProjectileGroup> groups, String groupId)
+    {
+        for (int i = 0; i < groups.size(); i++)
+        {
+            if (groups.get(i).getId().equals(groupId))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<ProjectileEntry> entriesOf(ProjectileGroup group)
+    {
+        if (group.getEntries() == null)
+        {
+            group.setEntries(new ArrayList<>());
+        }
+        return group.getEntries();
+    }
+}
@@ -0,0 +1,247 @@
+package com.projectilehighlighter.util;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.projectilehighlighter.ProjectileHighlighterConfig.OverlayStyle;
+import com.projectilehighlighter.model.ProjectileEntry;
+import com.projectilehighlighter.model.ProjectileGroup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming Gson adapters for groups and entries, so groups.json, the journal and
+ * import/export read and write fields directly instead of going through reflection
+ * or an intermediate tree. The JSON shape is the same one reflective Gson produced:
+ * same field names, nulls omitted, unknown fields skipped.
+ */
+final class GroupJsonAdapters
+{
+    static final TypeAdapter<ProjectileEntry> ENTRY = new EntryAdapter();
+    static final TypeAdapter<ProjectileGroup> GROUP = new GroupAdapter();
+
+    private GroupJsonAdapters()
+    {
+    }
+
+    /**
+     * Copy of {@code gson} that uses these adapters.
+     */
+    static Gson register(Gson gson)
+    {
+        return gson.newBuilder()
+            .registerTypeAdapter(ProjectileEntry.class, ENTRY)
+            .registerTypeAdapter(ProjectileGroup.class, GROUP)
+            .create();
+    }
+
+    /**
+     * Read a JSON array of groups. Null elements are dropped.
+     */
+    static List<ProjectileGroup> readGroups(JsonReader in) throws IOException
+    {
+        List<ProjectileGroup> groups = new ArrayList<>();
+        if (in.peek() == JsonToken.NULL)
+        {
+            in.nextNull();
+            return groups;
+        }
+
+        in.beginArray();
+        while (in.hasNext())
+        {
+            ProjectileGroup group = GROUP.read(in);
+            if (group != null)
+            {
+                groups.add(group);
+            }
+        }
+        in.endArray();
+        return groups;
+    }
+
+    static void writeGroups(JsonWriter out, List<ProjectileGroup> groups) throws IOException
+    {
+        out.beginArray();
+        for (ProjectileGroup group : groups)
+        {
+            GROUP.write(out, group);
+        }
+        out.endArray();
+    }
+
+    private static final class GroupAdapter extends TypeAdapter<ProjectileGroup>
+    {
+        @Override
+        public void write(JsonWriter out, ProjectileGroup group) throws IOException
+        {
+            if (group == null)
+            {
+                out.nullValue();
+                return;
+            }
+
+            out.beginObject();
+            if (group.getId() != null)
+            {
+                out.name("id").value(group.getId());
+            }
+            if (group.getName() != null)
+            {
+                out.name("name").value(group.getName());
+            }
+            out.name("enabled").value(group.isEnabled());
+            if (group.getEntries() != null)
+            {
+                out.name("entries").beginArray();
+                for (ProjectileEntry entry : group.getEntries())
+                {
+                    ENTRY.write(out, entry);
+                }
+                out.endArray();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public ProjectileGroup read(JsonReader in) throws IOException
+        {
+            if (in.peek() == JsonToken.NULL)
+            {
+                in.nextNull();
+                return null;
+            }
+
+            // Starts from the same defaults reflective Gson did: fresh ID, enabled, no entries
+            ProjectileGroup group = new ProjectileGroup();
+            in.beginObject();
+            while (in.hasNext())
+            {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL)
+                {
+                    in.nextNull();
+                    continue;
+                }
+
+                switch (name)
+                {
+                    case "id":
+                        group.setId(in.nextString());
+                        break;
+                    case "name":
+                        group.setName(in.nextString());
+                        break;
+                    case "enabled":
+                        group.setEnabled(in.nextBoolean());
+                        break;
+                    case "entries":
+                        in.beginArray();
+                        while (in.hasNext())
+                        {
+                            ProjectileEntry entry = ENTRY.read(in);
+                            if (entry != null)
+                            {
+                                group.addEntry(entry);
+                            }
+                        }
+                        in.endArray();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return group;
+        }
+    }
+
+    private static final class EntryAdapter extends TypeAdapter<ProjectileEntry>
+    {
+        @Override
+        public void write(JsonWriter out, ProjectileEntry entry) throws IOException
+        {
+            if (entry == null)
+            {
+                out.nullValue();
+                return;
+            }
+
+            out.beginObject();
+            out.name("projectileId").value(entry.getProjectileId());
+            if (entry.getCustomName() != null)
+            {
+                out.name("customName").value(entry.getCustomName());
+            }
+            out.name("colorRgb").value(entry.getColorRgb());
+            out.name("colorAlpha").value(entry.getColorAlpha());
+            if (entry.getOverlayStyle() != null)
+            {
+                out.name("overlayStyle").value(entry.getOverlayStyle().name());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public ProjectileEntry read(JsonReader in) throws IOException
+        {
+            if (in.peek() == JsonToken.NULL)
+            {
+                in.nextNull();
+                return null;
+            }
+
+            ProjectileEntry entry = new ProjectileEntry();
+            in.beginObject();
+            while (in.hasNext())
+            {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL)
+                {
+                    in.nextNull();
+                    continue;
+                }
+
+                switch (name)
+                {
+                    case "projectileId":
+                        entry.setProjectileId(in.nextInt());
+                        break;
+                    case "customName":
+                        entry.setCustomName(in.nextString());
+                        break;
+                    case "colorRgb":
+                        entry.setColorRgb(in.nextInt());
+                        break;
+                    case "colorAlpha":
+                        entry.setColorAlpha(in.nextInt());
+                        break;
+                    case "overlayStyle":
+                        entry.setOverlayStyle(parseStyle(in.nextString()));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return entry;
+        }
+
+        private static OverlayStyle parseStyle(String name)
+        {
+            // Unknown styles read as none, as reflective Gson did
+            try
+            {
+                return OverlayStyle.valueOf(name);
+            }
+            catch (IllegalArgumentException e)
+            {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.projectilehighlighter.util;
+
+import com.projectilehighlighter.model.ProjectileGroup;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable, versioned view of the group library.
+ * GroupStorage publishes a new snapshot on every change, so readers can keep
+ * the reference they were handed without locking or copying.
+ * The compiled lookup holds copies of the entry values and is the only part
+ * the client thread reads. Published groups are never modified; an edit copies
+ * the group and publishes the copy in a new snapshot.
+ */
+@Getter
+public final class GroupSnapshot
+{
+    public static final GroupSnapshot EMPTY = new GroupSnapshot(0, Collections.emptyList(), ProjectileLookup.EMPTY);
+
+    private final long version;
+    private final List<ProjectileGroup> groups;
+    private final ProjectileLookup lookup;
+
+    private GroupSnapshot(long version, List<ProjectileGroup> groups, ProjectileLookup lookup)
+    {
+        this.version = version;
+        this.groups = groups;
+        this.lookup = lookup;
+    }
+
+    /**
+     * Build the snapshot that follows this one. The list is taken over, not copied.
+     */
+    GroupSnapshot next(List<ProjectileGroup> newGroups)
+    {
+        return new GroupSnapshot(
+            version + 1,
+            Collections.unmodifiableList(newGroups),
+            ProjectileLookup.compile(newGroups)
+        );
+    }
+}
@@ -1,130 +1,567 @@
 package com.projectilehighlighter.util;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.projectilehighlighter.ProjectileHighlighterConfig.StorageFormat;
 import com.projectilehighlighter.model.ProjectileEntry;
 import com.projectilehighlighter.model.ProjectileGroup;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.client.RuneLite;
 
+import javax.swing.SwingUtilities;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
 
 /**
- * Handles persistence of projectile groups to JSON.
- * Storage location: ~/.runelite/projectile-highlighter/groups.json
+ * Handles persistence of projectile groups.
+ * Storage location: ~/.runelite/projectile-highlighter/groups.json, or groups.bin
+ * when the binary format is selected (see {@link GroupBinaryFormat}). Only one of the
+ * two is kept; the other is deleted after each full write.
+ * Each edit queues a record describing it, and a single background writer appends
+ * a burst of them to groups.journal in one write. Once the journal grows past a
+ * threshold it is compacted: the full state goes to a temp file that is atomically
+ * renamed over groups.json, then the journal is emptied. Loading replays the journal
+ * on top of groups.json (see {@link GroupJournal} for how a journal left over from
+ * an interrupted compaction is told apart).
+ * Nothing is read until {@link #loadGroups()}, which may run off the client thread;
+ * until then the snapshot is empty. Call {@link #close()} on shutdown to flush
+ * anything still pending.
  */
 @Slf4j
 public class GroupStorage
 {
     private static final String FOLDER_NAME = "projectile-highlighter";
     private static final String GROUPS_FILE_NAME = "groups.json";
+    private static final String BINARY_FILE_NAME = "groups.bin";
+    private static final String JOURNAL_FILE_NAME = "groups.journal";
     private static final String EXPORT_FORMAT_ID = "projectile-highlighter-groups";
     private static final int EXPORT_FORMAT_VERSION = 1;
+    private static final long SAVE_DELAY_MS = 500;
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+    private static final long JOURNAL_COMPACT_BYTES = 256 * 1024;
 
+    // Compact output for groups.json; pretty printing only for exports meant to be read
     private final Gson gson;
+    private final Gson exportGson;
+    private final File folder;
     private final File groupsFile;
-    private List<ProjectileGroup> groups;
-
-    private Consumer<List<ProjectileGroup>> onGroupsChangedCallback;
-
-    public GroupStorage(Gson gson)
+    private final File binaryFile;
+    private final GroupJournal journal;
+    private volatile GroupSnapshot snapshot = GroupSnapshot.EMPTY;
+    private volatile StorageFormat format;
+    private volatile boolean loaded;
+
+    // Journal records for edits not yet written, and whether the next write has to be a
+    // full snapshot instead; guarded by the storage lock like the snapshot they describe
+    private List<String> pendingRecords = new ArrayList<>();
+    private boolean snapshotPending;
+    private boolean writeScheduled;
+    private final ScheduledThreadPoolExecutor writer = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread thread = new Thread(r, "projectile-highlighter-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Length and CRC32 of the snapshot file on disk; set by the loader, then writer thread only
+    private long snapshotId;
+
+    private Consumer<GroupSnapshot> onGroupsChangedCallback;
+
+    public GroupStorage(Gson gson, StorageFormat format)
     {
-        this.gson = gson.newBuilder()
+        this.gson = GroupJsonAdapters.register(gson);
+        this.format = format;
+        this.exportGson = this.gson.newBuilder()
             .setPrettyPrinting()
             .create();
 
-        File folder = new File(RuneLite.RUNELITE_DIR, FOLDER_NAME);
-        if (!folder.exists())
-        {
-            folder.mkdirs();
-        }
+        writer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
 
+        this.folder = new File(RuneLite.RUNELITE_DIR, FOLDER_NAME);
         this.groupsFile = new File(folder, GROUPS_FILE_NAME);
-        this.groups = new ArrayList<>();
-
-        loadGroups();
+        this.binaryFile = new File(folder, BINARY_FILE_NAME);
+        this.journal = new GroupJournal(new File(folder, JOURNAL_FILE_NAME), this.gson);
     }
 
-    public void setOnGroupsChangedCallback(Consumer<List<ProjectileGroup>> callback)
+    public void setOnGroupsChangedCallback(Consumer<GroupSnapshot> callback)
     {
         this.onGroupsChangedCallback = callback;
     }
 
-    private void notifyGroupsChanged()
+    private void notifyGroupsChanged(GroupSnapshot published)
     {
         if (onGroupsChangedCallback != null)
         {
-            onGroupsChangedCallback.accept(new ArrayList<>(groups));
+            onGroupsChangedCallback.accept(published);
         }
     }
 
+    /**
+     * Build the next snapshot from a fresh list and publish it.
+     * Callers must hold the storage lock; readers never do.
+     */
+    private GroupSnapshot publish(List<ProjectileGroup> newGroups)
+    {
+        GroupSnapshot next = snapshot.next(newGroups);
+        snapshot = next;
+        return next;
+    }
+
+    /**
+     * Current published snapshot. Safe to call from any thread.
+     */
+    public GroupSnapshot getSnapshot()
+    {
+        return snapshot;
+    }
+
+    /**
+     * Compiled ID lookup over the enabled groups, rebuilt whenever groups change.
+     */
+    public ProjectileLookup getLookup()
+    {
+        return snapshot.getLookup();
+    }
+
+    /**
+     * Whether {@link #loadGroups()} has finished. Until it has, the groups are empty
+     * and must not be edited, or the edit would be lost when the load publishes.
+     */
+    public boolean isLoaded()
+    {
+        return loaded;
+    }
+
+    /**
+     * Read the library from disk and publish it in a single snapshot swap. Does file
+     * IO, so callers should keep it off the client thread and the EDT. The IO runs
+     * outside the storage lock; only the publish takes it. The storage counts as
+     * loaded afterwards even if this throws, so editing is never locked out for the
+     * rest of the session.
+     */
     public void loadGroups()
     {
-        if (!groupsFile.exists())
+        // Edits are refused until loaded, so nothing else touches the files or the journal meanwhile
+        List<ProjectileGroup> groups = new ArrayList<>();
+        try
         {
-            log.debug("No existing groups file found at {}", groupsFile.getPath());
-            groups = new ArrayList<>();
-            return;
+            if (!folder.exists())
+            {
+                folder.mkdirs();
+            }
+
+            groups = readSnapshot();
+            int replayed = journal.replay(groups, snapshotId);
+            if (replayed > 0)
+            {
+                log.debug("Replayed {} group journal records", replayed);
+            }
+        }
+        finally
+        {
+            GroupSnapshot published;
+            synchronized (this)
+            {
+                published = publish(groups);
+                loaded = true;
+            }
+            notifyGroupsChanged(published);
         }
+    }
 
-        try (FileReader reader = new FileReader(groupsFile))
+    /**
+     * Read whichever snapshot exists, preferring the configured format so a switch
+     * in progress picks up the newer file. Sets {@link #snapshotId} from what was read.
+     */
+    private List<ProjectileGroup> readSnapshot()
+    {
+        File preferred = format == StorageFormat.BINARY ? binaryFile : groupsFile;
+        File source = preferred.exists() ? preferred : (preferred == binaryFile ? groupsFile : binaryFile);
+        snapshotId = GroupJournal.snapshotId(0, 0);
+        if (!source.exists())
         {
-            Type listType = new TypeToken<ArrayList<ProjectileGroup>>(){}.getType();
-            List<ProjectileGroup> loaded = gson.fromJson(reader, listType);
+            log.debug("No existing groups file found at {}", preferred.getPath());
+            return new ArrayList<>();
+        }
 
-            if (loaded != null)
+        boolean binary = source == binaryFile;
+        long start = System.nanoTime();
+        List<ProjectileGroup> groups = binary ? readBinaryFile() : readGroupsFile();
+        if (log.isDebugEnabled())
+        {
+            int entries = 0;
+            for (ProjectileGroup group : groups)
             {
-                groups = loaded;
-                log.info("Loaded {} projectile groups from file", groups.size());
+                entries += group.getEntryCount();
             }
-            else
+            log.debug("Read {} groups with {} entries ({} bytes) from {} in {} µs",
+                groups.size(), entries, source.length(), source.getName(), (System.nanoTime() - start) / 1000);
+        }
+        return groups;
+    }
+
+    private List<ProjectileGroup> readBinaryFile()
+    {
+        try (FileChannel channel = FileChannel.open(binaryFile.toPath(), StandardOpenOption.READ))
+        {
+            // One bulk read rather than a mapping: a mapped file can't be replaced on
+            // Windows until the mapping is collected, which would block the next compaction
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining())
             {
-                groups = new ArrayList<>();
+                if (channel.read(buffer) < 0)
+                {
+                    throw new IOException("Binary groups file ended early");
+                }
             }
+            buffer.flip();
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate());
+            snapshotId = GroupJournal.snapshotId(buffer.remaining(), crc.getValue());
+            List<ProjectileGroup> loaded = GroupBinaryFormat.read(buffer);
+            log.info("Loaded {} projectile groups from file", loaded.size());
+            return loaded;
+        }
+        catch (IOException e)
+        {
+            log.error("Failed to load groups from binary file", e);
+            return new ArrayList<>();
+        }
+    }
+
+    private List<ProjectileGroup> readGroupsFile()
+    {
+        if (groupsFile.length() == 0)
+        {
+            return new ArrayList<>();
+        }
+
+        try (CheckedInputStream in = new CheckedInputStream(new FileInputStream(groupsFile), new CRC32());
+             JsonReader reader = gson.newJsonReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))))
+        {
+            List<ProjectileGroup> loaded = GroupJsonAdapters.readGroups(reader);
+            // Checksum whatever the reader left unread too, so the ID covers the whole file
+            in.transferTo(OutputStream.nullOutputStream());
+            snapshotId = GroupJournal.snapshotId(groupsFile.length(), in.getChecksum().getValue());
+            log.info("Loaded {} projectile groups from file", loaded.size());
+            return loaded;
         }
         catch (IOException e)
         {
             log.error("Failed to load groups from file", e);
-            groups = new ArrayList<>();
+            return new ArrayList<>();
         }
         catch (Exception e)
         {
             log.error("Failed to parse groups file", e);
-            groups = new ArrayList<>();
+            return new ArrayList<>();
         }
     }
 
+    /**
+     * Schedule a full write of the current groups on the background writer, in place
+     * of journal records.
+     */
     public void saveGroups()
     {
-        try (FileWriter writer = new FileWriter(groupsFile))
+        synchronized (this)
         {
-            gson.toJson(groups, writer);
-            log.debug("Saved {} projectile groups to file", groups.size());
+            snapshotPending = true;
+        }
+        scheduleWrite();
+    }
+
+    /**
+     * Queue the journal record for an edit that was just published. Callers must hold
+     * the storage lock, so records stay in the order their snapshots were published.
+     */
+    private void queueRecord(String record)
+    {
+        // Edits before loading are refused by scheduleWrite and replaced by the load
+        if (loaded)
+        {
+            pendingRecords.add(record);
+        }
+    }
+
+    /**
+     * Have the background writer flush whatever is pending after a short delay, so a
+     * burst of edits goes out in one write. Saves requested while one is already
+     * scheduled just add to what it will write.
+     */
+    private void scheduleWrite()
+    {
+        if (!loaded)
+        {
+            // Writing now would replace the library on disk with this partial state
+            log.warn("Ignoring group save before groups have loaded");
+            return;
+        }
+
+        synchronized (this)
+        {
+            if (writeScheduled)
+            {
+                return;
+            }
+            writeScheduled = true;
+        }
+
+        try
+        {
+            writer.schedule(this::writePending, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+        catch (RejectedExecutionException e)
+        {
+            // Already closed; write on the caller rather than lose the edit
+            writePending();
+        }
+    }
+
+    /**
+     * Switch the on-disk format. The library is rewritten in the new format on the
+     * background writer, which also removes the old file.
+     */
+    public void setStorageFormat(StorageFormat newFormat)
+    {
+        synchronized (this)
+        {
+            if (newFormat == format)
+            {
+                return;
+            }
+
+            format = newFormat;
+            if (!loaded)
+            {
+                // Nothing read yet to rewrite; the next compaction after loading uses the new format
+                return;
+            }
+        }
+        saveGroups();
+    }
+
+    /**
+     * Write any pending save and stop the background writer. Waits up to
+     * {@value #CLOSE_TIMEOUT_SECONDS} seconds for the write, except on the EDT, which
+     * only hands it off: a plugin being turned off leaves the client running, so the
+     * writer still finishes it.
+     */
+    public void close()
+    {
+        // Queue the flush behind any write in progress so writes stay in order;
+        // the delayed save it replaces is dropped by shutdown
+        try
+        {
+            writer.execute(this::writePending);
+        }
+        catch (RejectedExecutionException e)
+        {
+            log.debug("Group writer already closed");
+        }
+        writer.shutdown();
+
+        if (SwingUtilities.isEventDispatchThread())
+        {
+            return;
+        }
+
+        try
+        {
+            if (!writer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+            {
+                log.warn("Group writer did not finish in time");
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writePending()
+    {
+        List<String> records;
+        boolean full;
+        List<ProjectileGroup> groups;
+        synchronized (this)
+        {
+            writeScheduled = false;
+            if (!loaded || (pendingRecords.isEmpty() && !snapshotPending))
+            {
+                return;
+            }
+
+            // The snapshot taken here already includes every record taken with it
+            records = pendingRecords;
+            pendingRecords = new ArrayList<>();
+            full = snapshotPending;
+            snapshotPending = false;
+            groups = snapshot.getGroups();
+        }
+
+        if (!full && journal.isAppendable() && journal.size() + estimateSize(records) <= JOURNAL_COMPACT_BYTES)
+        {
+            try
+            {
+                journal.append(records);
+                log.debug("Appended {} group journal records", records.size());
+                return;
+            }
+            catch (IOException e)
+            {
+                log.warn("Failed to append to group journal, writing a full snapshot instead", e);
+            }
+        }
+
+        if (!compact(groups))
+        {
+            // The records taken above are gone, so only a full write can save these edits
+            synchronized (this)
+            {
+                snapshotPending = true;
+            }
+        }
+    }
+
+    /**
+     * Write the full state to a fresh snapshot and start the journal over against it.
+     * Until the journal is reset its header still names the old snapshot, so a crash
+     * in between, or a failed reset, leaves records that the next load ignores.
+     * @return whether the snapshot was written
+     */
+    private boolean compact(List<ProjectileGroup> groups)
+    {
+        if (!writeSnapshot(groups))
+        {
+            return false;
+        }
+
+        try
+        {
+            journal.reset(snapshotId);
+        }
+        catch (IOException e)
+        {
+            // The journal stays unappendable, so the next save compacts again
+            log.warn("Failed to clear group journal", e);
+        }
+        return true;
+    }
+
+    private static long estimateSize(List<String> records)
+    {
+        long size = 0;
+        for (String record : records)
+        {
+            // One byte per char is exact for ASCII, and names are short enough not to matter
+            size += record.length() + 1;
+        }
+        return size;
+    }
+
+    /**
+     * Write the groups to a temp file and rename it over the snapshot for the current
+     * format, updating {@link #snapshotId} to match the new file.
+     */
+    private boolean writeSnapshot(List<ProjectileGroup> groups)
+    {
+        boolean binary = format == StorageFormat.BINARY;
+        File target = binary ? binaryFile : groupsFile;
+        File tempFile = new File(target.getPath() + ".tmp");
+        long writtenId;
+        try (FileOutputStream file = new FileOutputStream(tempFile))
+        {
+            CRC32 crc = new CRC32();
+            OutputStream out = new BufferedOutputStream(new CheckedOutputStream(file, crc));
+            if (binary)
+            {
+                GroupBinaryFormat.write(groups, out);
+            }
+            else
+            {
+                // Buffer chars ahead of the encoder, which otherwise allocates for each small write
+                JsonWriter json = gson.newJsonWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+                GroupJsonAdapters.writeGroups(json, groups);
+                json.flush();
+            }
+            out.flush();
+            // The rename below must not reach the disk ahead of the contents it publishes
+            file.getFD().sync();
+            writtenId = GroupJournal.snapshotId(file.getChannel().size(), crc.getValue());
         }
         catch (IOException e)
         {
             log.error("Failed to save groups to file", e);
+            return false;
+        }
+
+        try
+        {
+            try
+            {
+                Files.move(tempFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e)
+            {
+                Files.move(tempFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            snapshotId = writtenId;
+            log.debug("Saved {} projectile groups to {}", groups.size(), target.getName());
+
+            // The journal now applies to this snapshot only, so the other format must not be loaded again
+            Files.deleteIfExists((binary ? groupsFile : binaryFile).toPath());
+            return true;
+        }
+        catch (IOException e)
+        {
+            log.error("Failed to replace groups file", e);
+            return false;
         }
     }
 
+    /**
+     * Groups in display order. The returned list is the snapshot's own
+     * unmodifiable list; no copy is made.
+     */
     public List<ProjectileGroup> getGroups()
     {
-        return new ArrayList<>(groups);
+        return snapshot.getGroups();
     }
 
     public List<ProjectileGroup> getEnabledGroups()
     {
         List<ProjectileGroup> enabled = new ArrayList<>();
-        for (ProjectileGroup group : groups)
+        for (ProjectileGroup group : snapshot.getGroups())
         {
             if (group.isEnabled())
             {
@@ -134,59 +571,136 @@ public class GroupStorage
         return enabled;
     }
 
+    /**
+     * Add a copy of {@code group} at the top of the list.
+     */
     public void addGroup(ProjectileGroup group)
     {
-        groups.add(0, group);
-        saveGroups();
-        notifyGroupsChanged();
+        ProjectileGroup stored = group.copy();
+        GroupSnapshot published;
+        synchronized (this)
+        {
+            List<ProjectileGroup> groups = new ArrayList<>(snapshot.getGroups());
+            groups.add(0, stored);
+            published = publish(groups);
+            queueRecord(journal.addGroup(0, stored));
+        }
+        scheduleWrite();
+        notifyGroupsChanged(published);
     }
 
+    /**
+     * Replace the stored group that has the same ID with a copy of {@code group}.
+     */
     public void updateGroup(ProjectileGroup group)
+    {
+        ProjectileGroup replacement = group.copy();
+        editGroup(group.getId(), g -> {
+            g.setName(replacement.getName());
+            g.setEnabled(replacement.isEnabled());
+            g.setEntries(replacement.getEntries());
+        }, journal::replaceGroup);
+    }
+
+    /**
+     * Apply an edit to a copy of the group and publish the copy in its place, queueing
+     * the journal record {@code record} makes from the edited copy. Published groups
+     * are never modified, so readers holding a snapshot always see groups that match
+     * its compiled lookup.
+     */
+    private void editGroup(String groupId, Consumer<ProjectileGroup> edit, Function<ProjectileGroup, String> record)
+    {
+        GroupSnapshot published;
+        synchronized (this)
+        {
+            List<ProjectileGroup> groups = new ArrayList<>(snapshot.getGroups());
+            int index = indexOfGroup(groups, groupId);
+            if (index < 0)
+            {
+                return;
+            }
+
+            ProjectileGroup copy = groups.get(index).copy();
+            edit.accept(copy);
+            groups.set(index, copy);
+            published = publish(groups);
+            queueRecord(record.apply(copy));
+        }
+        scheduleWrite();
+        notifyGroupsChanged(published);
+    }
+
+    private static int indexOfGroup(List<ProjectileGroup> groups, String groupId)
     {
         for (int i = 0; i < groups.size(); i++)
         {
-            if (groups.get(i).getId().equals(group.getId()))
+            if (groups.get(i).getId().equals(groupId))
             {
-                groups.set(i, group);
-                break;
+                return i;
             }
         }
-        saveGroups();
-        notifyGroupsChanged();
+        return -1;
     }
 
     public void deleteGroup(ProjectileGroup group)
     {
-        groups.removeIf(g -> g.getId().equals(group.getId()));
-        saveGroups();
-        notifyGroupsChanged();
+        deleteGroupById(group.getId());
     }
 
     public void deleteGroupById(String groupId)
     {
-        groups.removeIf(g -> g.getId().equals(groupId));
-        saveGroups();
-        notifyGroupsChanged();
+        GroupSnapshot published;
+        synchronized (this)
+        {
+            List<ProjectileGroup> groups = new ArrayList<>(snapshot.getGroups());
+            if (!groups.removeIf(g -> g.getId().equals(groupId)))
+            {
+                return;
+            }
+            published = publish(groups);
+            queueRecord(journal.removeGroup(groupId));
+        }
+        scheduleWrite();
+        notifyGroupsChanged(published);
     }
 
     public void renameGroup(ProjectileGroup group, String newName)
     {
-        group.setName(newName);
-        updateGroup(group);
+        editGroup(group.getId(), g -> g.setName(newName), journal::setGroup);
     }
 
     public void toggleGroupEnabled(ProjectileGroup group)
     {
-        group.setEnabled(!group.isEnabled());
-        updateGroup(group);
+        editGroup(group.getId(), g -> g.setEnabled(!g.isEnabled()), journal::setGroup);
+    }
+
+    /**
+     * Store a copy of an entry in a group, replacing the entry that had
+     * {@code previousId} (so an ID change keeps its place) or appending it.
+     */
+    public void putEntry(String groupId, int previousId, ProjectileEntry entry)
+    {
+        ProjectileEntry stored = entry.copy();
+        editGroup(groupId, g -> GroupJournal.putEntry(g, previousId, stored),
+            g -> journal.putEntry(groupId, previousId, stored));
+    }
+
+    public void removeEntry(String groupId, int projectileId)
+    {
+        editGroup(groupId, g -> g.removeEntryById(projectileId),
+            g -> journal.removeEntry(groupId, projectileId));
     }
 
     public ProjectileGroup findGroupById(String groupId)
     {
-        return groups.stream()
-            .filter(g -> g.getId().equals(groupId))
-            .findFirst()
-            .orElse(null);
+        for (ProjectileGroup group : snapshot.getGroups())
+        {
+            if (group.getId().equals(groupId))
+            {
+                return group;
+            }
+        }
+        return null;
     }
 
     /**
@@ -194,7 +708,7 @@ public class GroupStorage
      */
     public ProjectileGroup findGroupContainingProjectile(int projectileId)
     {
-        for (ProjectileGroup group : groups)
+        for (ProjectileGroup group : snapshot.getGroups())
         {
             if (group.findEntryById(projectileId) != null)
             {
@@ -209,8 +723,13 @@ public class GroupStorage
      */
     public ProjectileEntry getEnabledEntry(int projectileId)
     {
-        for (ProjectileGroup group : getEnabledGroups())
+        for (ProjectileGroup group : snapshot.getGroups())
         {
+            if (!group.isEnabled())
+            {
+                continue;
+            }
+
             ProjectileEntry entry = group.findEntryById(projectileId);
             if (entry != null)
             {
@@ -225,7 +744,7 @@ public class GroupStorage
      */
     public boolean isProjectileEnabled(int projectileId)
     {
-        return getEnabledEntry(projectileId) != null;
+        return snapshot.getLookup().indexOf(projectileId) >= 0;
     }
 
     /**
@@ -233,11 +752,7 @@ public class GroupStorage
      */
     public String exportToJson()
     {
-        JsonObject wrapper = new JsonObject();
-        wrapper.addProperty("format", EXPORT_FORMAT_ID);
-        wrapper.addProperty("version", EXPORT_FORMAT_VERSION);
-        wrapper.add("groups", gson.toJsonTree(groups));
-        return gson.toJson(wrapper);
+        return writeExport(snapshot.getGroups());
     }
 
     /**
@@ -245,11 +760,29 @@ public class GroupStorage
      */
     public String exportGroupToJson(ProjectileGroup group)
     {
-        JsonObject wrapper = new JsonObject();
-        wrapper.addProperty("format", EXPORT_FORMAT_ID);
-        wrapper.addProperty("version", EXPORT_FORMAT_VERSION);
-        wrapper.add("groups", gson.toJsonTree(java.util.Collections.singletonList(group)));
-        return gson.toJson(wrapper);
+        return writeExport(Collections.singletonList(group));
+    }
+
+    private String writeExport(List<ProjectileGroup> groups)
+    {
+        StringWriter out = new StringWriter();
+        try (JsonWriter json = exportGson.newJsonWriter(out))
+        {
+            // Escape <, > and friends as Gson.toJson did, so exports read the same as before
+            json.setHtmlSafe(true);
+            json.beginObject();
+            json.name("format").value(EXPORT_FORMAT_ID);
+            json.name("version").value(EXPORT_FORMAT_VERSION);
+            json.name("groups");
+            GroupJsonAdapters.writeGroups(json, groups);
+            json.endObject();
+        }
+        catch (IOException e)
+        {
+            // A StringWriter never throws
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
     }
 
     /**
@@ -268,61 +801,96 @@ public class GroupStorage
 
         try
         {
-            JsonObject wrapper = new JsonParser().parse(json).getAsJsonObject();
-
-            // Validate format identifier
-            if (!wrapper.has("format") || !EXPORT_FORMAT_ID.equals(wrapper.get("format").getAsString()))
+            boolean formatSeen = false;
+            List<ProjectileGroup> importedGroups = null;
+            try (JsonReader reader = gson.newJsonReader(new StringReader(json)))
             {
-                throw new IllegalArgumentException("Invalid format: not a Projectile Highlighter export");
+                reader.setLenient(true);
+                reader.beginObject();
+                while (reader.hasNext())
+                {
+                    switch (reader.nextName())
+                    {
+                        case "format":
+                            // Validate format identifier
+                            if (!EXPORT_FORMAT_ID.equals(reader.nextString()))
+                            {
+                                throw new IllegalArgumentException("Invalid format: not a Projectile Highlighter export");
+                            }
+                            formatSeen = true;
+                            break;
+                        case "version":
+                            // Check version (for future compatibility)
+                            int version = reader.nextInt();
+                            if (version > EXPORT_FORMAT_VERSION)
+                            {
+                                throw new IllegalArgumentException("Export version " + version + " is newer than supported version " + EXPORT_FORMAT_VERSION);
+                            }
+                            break;
+                        case "groups":
+                            importedGroups = GroupJsonAdapters.readGroups(reader);
+                            break;
+                        default:
+                            reader.skipValue();
+                    }
+                }
+                reader.endObject();
             }
 
-            // Check version (for future compatibility)
-            int version = wrapper.has("version") ? wrapper.get("version").getAsInt() : 0;
-            if (version > EXPORT_FORMAT_VERSION)
+            if (!formatSeen)
             {
-                throw new IllegalArgumentException("Export version " + version + " is newer than supported version " + EXPORT_FORMAT_VERSION);
+                throw new IllegalArgumentException("Invalid format: not a Projectile Highlighter export");
             }
 
-            // Parse groups
-            Type listType = new TypeToken<ArrayList<ProjectileGroup>>(){}.getType();
-            List<ProjectileGroup> importedGroups = gson.fromJson(wrapper.get("groups"), listType);
-
             if (importedGroups == null || importedGroups.isEmpty())
             {
                 throw new IllegalArgumentException("No groups found in import data");
             }
 
+            // Publish copies, so nothing outside the storage holds a published group
+            importedGroups.replaceAll(ProjectileGroup::copy);
+
             int importedCount = importedGroups.size();
             int addedCount = 0;
             int skippedCount = 0;
 
-            if (replaceExisting)
+            GroupSnapshot published;
+            synchronized (this)
             {
-                groups.clear();
-                groups.addAll(importedGroups);
-                addedCount = importedCount;
-            }
-            else
-            {
-                // Merge: add groups that don't already exist (by ID)
-                for (ProjectileGroup importedGroup : importedGroups)
+                List<ProjectileGroup> groups;
+                if (replaceExisting)
                 {
-                    boolean exists = groups.stream()
-                        .anyMatch(g -> g.getId().equals(importedGroup.getId()));
-                    if (!exists)
-                    {
-                        groups.add(importedGroup);
-                        addedCount++;
-                    }
-                    else
+                    groups = new ArrayList<>(importedGroups);
+                    addedCount = importedCount;
+                    // A whole new library; write it out in full rather than as records
+                    snapshotPending = true;
+                }
+                else
+                {
+                    groups = new ArrayList<>(snapshot.getGroups());
+
+                    // Merge: add groups that don't already exist (by ID)
+                    for (ProjectileGroup importedGroup : importedGroups)
                     {
-                        skippedCount++;
+                        boolean exists = groups.stream()
+                            .anyMatch(g -> g.getId().equals(importedGroup.getId()));
+                        if (!exists)
+                        {
+                            queueRecord(journal.addGroup(groups.size(), importedGroup));
+                            groups.add(importedGroup);
+                            addedCount++;
+                        }
+                        else
+                        {
+                            skippedCount++;
+                        }
                     }
                 }
+                published = publish(groups);
             }
 
-            saveGroups();
-            notifyGroupsChanged();
+            scheduleWrite();
+            notifyGroupsChanged(published);
 
             if (replaceExisting)
             {
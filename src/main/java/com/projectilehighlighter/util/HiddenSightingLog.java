@@ -0,0 +1,98 @@
+package com.projectilehighlighter.util;
+
+import net.runelite.api.Actor;
+import net.runelite.api.NPC;
+import net.runelite.api.Player;
+
+import java.util.Arrays;
+
+/**
+ * Bounded log of projectile sightings recorded while the sidebar is hidden.
+ * Only the projectile ID and a primitive handle on the game-reported source are
+ * kept: the NPC's index and ID, or the player's name. No actor is held, so
+ * despawned actors can be collected; names and rows are materialized when the
+ * panel is opened. Oldest entries are overwritten once full. Client thread only.
+ */
+public final class HiddenSightingLog
+{
+    public static final int NO_NPC = -1;
+
+    private final int[] ids;
+    private final int[] npcIndexes;
+    private final int[] npcIds;
+    private final String[] playerNames;
+    private int start;
+    private int count;
+
+    public HiddenSightingLog(int capacity)
+    {
+        this.ids = new int[capacity];
+        this.npcIndexes = new int[capacity];
+        this.npcIds = new int[capacity];
+        this.playerNames = new String[capacity];
+    }
+
+    public void record(int projectileId, Actor source)
+    {
+        int index = (start + count) % ids.length;
+        if (count == ids.length)
+        {
+            start = (start + 1) % ids.length;
+        }
+        else
+        {
+            count++;
+        }
+
+        ids[index] = projectileId;
+        npcIndexes[index] = NO_NPC;
+        npcIds[index] = 0;
+        playerNames[index] = null;
+        if (source instanceof NPC)
+        {
+            NPC npc = (NPC) source;
+            npcIndexes[index] = npc.getIndex();
+            npcIds[index] = npc.getId();
+        }
+        else if (source instanceof Player)
+        {
+            playerNames[index] = source.getName();
+        }
+    }
+
+    /**
+     * Hand every recorded sighting to {@code sink}, oldest first, then clear the log.
+     */
+    public void drain(Sink sink)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            int index = (start + i) % ids.length;
+            sink.accept(ids[index], npcIndexes[index], npcIds[index], playerNames[index]);
+        }
+        clear();
+    }
+
+    public void clear()
+    {
+        Arrays.fill(playerNames, null);
+        start = 0;
+        count = 0;
+    }
+
+    public boolean isEmpty()
+    {
+        return count == 0;
+    }
+
+    @FunctionalInterface
+    public interface Sink
+    {
+        /**
+         * @param npcIndex the source NPC's index, or {@link #NO_NPC}
+         * @param npcId the source NPC's ID, to tell whether its index has been reused since
+         * @param playerName the source player's name, or null
+         */
+        void accept(int projectileId, int npcIndex, int npcId, String playerName);
+    }
+}
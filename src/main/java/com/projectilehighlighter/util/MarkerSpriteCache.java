@@ -0,0 +1,167 @@
+package com.projectilehighlighter.util;
+
+import com.projectilehighlighter.ProjectileHighlighterConfig.OverlayStyle;
+import lombok.Getter;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of pre-rasterized circle markers for the HULL, OUTLINE and FILLED styles.
+ * Each marker is drawn once, anti-aliased, into a translucent image compatible with
+ * the target surface and then blitted with drawImage. Keys pack every value that
+ * affects the pixels, so entries never go stale; unused ones simply age out.
+ * Client thread only.
+ */
+public final class MarkerSpriteCache
+{
+    private static final int DEFAULT_CAPACITY = 128;
+
+    // Extra pixels around the marker taken up by the glow rings
+    private static final int GLOW_RADIUS = 6;
+    // Alpha of the innermost glow ring as a fraction of full opacity
+    private static final float GLOW_STRENGTH = 0.35f;
+
+    private final Map<Long, Sprite> sprites;
+
+    public MarkerSpriteCache()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MarkerSpriteCache(int capacity)
+    {
+        this.sprites = new LinkedHashMap<Long, Sprite>(capacity * 2, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Sprite> eldest)
+            {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Get the sprite for a circle marker, rendering it on first use.
+     * @param gc configuration of the surface the sprite will be drawn on, may be null
+     * @param style HULL, OUTLINE or FILLED
+     * @param argb entry color including alpha
+     * @param fillOpacity cap on the fill alpha for the HULL style (0-255)
+     * @param diameter circle diameter in pixels (at most 127)
+     * @param strokeWidth outline width in pixels (at most 15)
+     * @param glow whether to add a soft glow around the outline
+     */
+    public Sprite get(GraphicsConfiguration gc, OverlayStyle style, int argb, int fillOpacity,
+                      int diameter, int strokeWidth, boolean glow)
+    {
+        long key = ((long) argb << 32)
+            | style.ordinal()
+            | (diameter & 0x7F) << 2
+            | (strokeWidth & 0xF) << 9
+            | (fillOpacity & 0xFF) << 13
+            | (glow ? 1 << 21 : 0);
+
+        Sprite sprite = sprites.get(key);
+        if (sprite == null)
+        {
+            sprite = render(gc, style, argb, fillOpacity, diameter, strokeWidth, glow);
+            sprites.put(key, sprite);
+        }
+        return sprite;
+    }
+
+    public void clear()
+    {
+        sprites.clear();
+    }
+
+    public int size()
+    {
+        return sprites.size();
+    }
+
+    private static Sprite render(GraphicsConfiguration gc, OverlayStyle style, int argb, int fillOpacity,
+                                 int diameter, int strokeWidth, boolean glow)
+    {
+        // Room for half the stroke outside the circle, anti-aliasing and the glow
+        int padding = (strokeWidth + 1) / 2 + 1 + (glow ? GLOW_RADIUS : 0);
+        int imageSize = diameter + padding * 2;
+
+        BufferedImage image = gc != null
+            ? gc.createCompatibleImage(imageSize, imageSize, Transparency.TRANSLUCENT)
+            : new BufferedImage(imageSize, imageSize, BufferedImage.TYPE_INT_ARGB);
+
+        int alpha = argb >>> 24;
+        int rgb = argb & 0xFFFFFF;
+        Color outlineColor = new Color(0xFF000000 | rgb, true);
+        Ellipse2D.Double circle = new Ellipse2D.Double(padding, padding, diameter, diameter);
+
+        Graphics2D g = image.createGraphics();
+        try
+        {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+
+            if (glow)
+            {
+                // Widest and faintest ring first so the inner rings build up toward the outline
+                for (int ring = GLOW_RADIUS; ring >= 1; ring--)
+                {
+                    float strength = GLOW_STRENGTH * (1f - (float) ring / (GLOW_RADIUS + 1));
+                    g.setColor(new Color((Math.round(255 * strength) << 24) | rgb, true));
+                    g.setStroke(new BasicStroke(strokeWidth + ring * 2));
+                    g.draw(circle);
+                }
+            }
+
+            switch (style)
+            {
+                case HULL:
+                    g.setColor(new Color((Math.min(alpha, fillOpacity) << 24) | rgb, true));
+                    g.fill(circle);
+                    break;
+                case FILLED:
+                    g.setColor(new Color(argb, true));
+                    g.fill(circle);
+                    break;
+                default:
+                    break;
+            }
+
+            g.setColor(outlineColor);
+            g.setStroke(new BasicStroke(strokeWidth));
+            g.draw(circle);
+        }
+        finally
+        {
+            g.dispose();
+        }
+
+        return new Sprite(image, padding);
+    }
+
+    /**
+     * A rendered marker. The circle's bounding box starts {@code padding} pixels
+     * into the image on both axes.
+     */
+    @Getter
+    public static final class Sprite
+    {
+        private final BufferedImage image;
+        private final int padding;
+
+        private Sprite(BufferedImage image, int padding)
+        {
+            this.image = image;
+            this.padding = padding;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.projectilehighlighter.util;
+
+import lombok.Getter;
+
+/**
+ * Picks the overlay quality tier from its own measured render time. Steps down one
+ * tier after the smoothed frame cost stays over budget for a short while, and back
+ * up only after it stays well under budget for much longer, so it doesn't flap.
+ * Client thread only.
+ */
+public final class OverlayQualityGovernor
+{
+    // Weight of the newest frame in the moving average
+    private static final double SMOOTHING = 0.1;
+    // Frames over budget before stepping down
+    private static final int STEP_DOWN_FRAMES = 15;
+    // Frames under half the budget before stepping back up
+    private static final int STEP_UP_FRAMES = 180;
+
+    @Getter
+    private Tier tier = Tier.FULL;
+    @Getter
+    private double averageNanos;
+    private int framesOver;
+    private int framesUnder;
+
+    /**
+     * Feed one frame's render time.
+     * @param budgetNanos per-frame budget, 0 or less disables adaptation
+     * @return whether the tier changed
+     */
+    public boolean record(long frameNanos, long budgetNanos)
+    {
+        if (budgetNanos <= 0)
+        {
+            Tier previous = tier;
+            reset();
+            return previous != tier;
+        }
+
+        averageNanos = averageNanos == 0 ? frameNanos : averageNanos + (frameNanos - averageNanos) * SMOOTHING;
+
+        if (averageNanos > budgetNanos)
+        {
+            framesUnder = 0;
+            if (++framesOver >= STEP_DOWN_FRAMES && tier.ordinal() < Tier.MINIMAL.ordinal())
+            {
+                tier = Tier.values()[tier.ordinal() + 1];
+                framesOver = 0;
+                return true;
+            }
+        }
+        else if (averageNanos < budgetNanos / 2.0)
+        {
+            framesOver = 0;
+            if (++framesUnder >= STEP_UP_FRAMES && tier != Tier.FULL)
+            {
+                tier = Tier.values()[tier.ordinal() - 1];
+                framesUnder = 0;
+                return true;
+            }
+        }
+        else
+        {
+            framesOver = 0;
+            framesUnder = 0;
+        }
+        return false;
+    }
+
+    public void reset()
+    {
+        tier = Tier.FULL;
+        averageNanos = 0;
+        framesOver = 0;
+        framesUnder = 0;
+    }
+
+    /**
+     * Each tier keeps the savings of the ones above it.
+     */
+    public enum Tier
+    {
+        // Everything drawn as configured
+        FULL,
+        // No antialiasing on live-drawn shapes
+        REDUCED,
+        // Fills and debug ID labels dropped, outlines only
+        LOW,
+        // A hard cap on drawn projectiles
+        MINIMAL;
+
+        public boolean isAntialiased()
+        {
+            return this == FULL;
+        }
+
+        public boolean isFilled()
+        {
+            return ordinal() < LOW.ordinal();
+        }
+
+        public boolean isLabeled()
+        {
+            return ordinal() < LOW.ordinal();
+        }
+    }
+}
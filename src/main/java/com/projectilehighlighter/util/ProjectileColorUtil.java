@@ -16,12 +16,19 @@ public final class ProjectileColorUtil
 
     public static Color getDefaultColorForProjectile(int projectileId, ProjectileHighlighterConfig config)
     {
-        if (config.defaultColorMode() == ProjectileHighlighterConfig.DefaultColorMode.FIXED)
+        return getDefaultColorForProjectile(projectileId, config.defaultColorMode(), config.defaultColor());
+    }
+
+    public static Color getDefaultColorForProjectile(int projectileId,
+                                                     ProjectileHighlighterConfig.DefaultColorMode colorMode,
+                                                     Color defaultColor)
+    {
+        if (colorMode == ProjectileHighlighterConfig.DefaultColorMode.FIXED)
         {
-            return config.defaultColor();
+            return defaultColor;
         }
 
-        return getSeededRandomColor(projectileId, config.defaultColor().getAlpha());
+        return getSeededRandomColor(projectileId, defaultColor.getAlpha());
     }
 
     private static Color getSeededRandomColor(int projectileId, int alpha)
@@ -0,0 +1,123 @@
+package com.projectilehighlighter.util;
+
+import net.runelite.api.Client;
+import net.runelite.api.Perspective;
+import net.runelite.api.Player;
+import net.runelite.api.coords.LocalPoint;
+
+/**
+ * Cheap pre-projection rejection for the overlay. Drops projectiles on another plane
+ * than the local player, beyond a tile distance from the player, or certainly outside
+ * the camera view, so Perspective projection only runs for ones that can be on screen.
+ * The camera test never rejects a projectile that could be visible: it ignores tile
+ * height and bounds the vertical offset instead. Client thread only.
+ */
+public final class ProjectileCuller
+{
+    // Local units per tile
+    private static final int TILE_SIZE = Perspective.LOCAL_TILE_SIZE;
+    // Half diagonal of a tile, so a tile polygon around a culled center can't still poke in
+    private static final int TILE_RADIUS = 91;
+    // Largest vertical distance assumed between a projectile and the camera, on top of the camera height
+    private static final int HEIGHT_SLACK = 2048;
+    // Same near plane as Perspective.localToCanvas
+    private static final int NEAR_PLANE = 50;
+
+    private boolean playerKnown;
+    private int plane;
+    private int playerX;
+    private int playerY;
+    private int maxDistance;
+
+    private int cameraX;
+    private int cameraY;
+    private int maxDz;
+    private int pitchSin;
+    private int pitchCos;
+    private int yawSin;
+    private int yawCos;
+    private long scale;
+    private int halfWidth;
+    private int marginPixels;
+
+    /**
+     * Capture the player and camera state for this frame.
+     * @param maxTileDistance highest tile distance from the player to keep, 0 for no limit
+     * @param marginPixels how far a marker can extend from its projected point
+     */
+    public void prepare(Client client, int maxTileDistance, int marginPixels)
+    {
+        Player localPlayer = client.getLocalPlayer();
+        LocalPoint playerPoint = localPlayer != null ? localPlayer.getLocalLocation() : null;
+        playerKnown = playerPoint != null;
+        if (playerKnown)
+        {
+            plane = client.getPlane();
+            playerX = playerPoint.getX();
+            playerY = playerPoint.getY();
+        }
+        maxDistance = maxTileDistance;
+
+        cameraX = client.getCameraX();
+        cameraY = client.getCameraY();
+        maxDz = Math.abs(client.getCameraZ()) + HEIGHT_SLACK;
+        pitchSin = Perspective.SINE[client.getCameraPitch() & 2047];
+        pitchCos = Perspective.COSINE[client.getCameraPitch() & 2047];
+        yawSin = Perspective.SINE[client.getCameraYaw() & 2047];
+        yawCos = Perspective.COSINE[client.getCameraYaw() & 2047];
+        scale = client.getScale();
+        halfWidth = client.getViewportWidth() / 2;
+        this.marginPixels = marginPixels;
+    }
+
+    /**
+     * @param x local x of the projectile
+     * @param y local y of the projectile
+     * @param floor plane the projectile is on
+     */
+    public boolean isVisible(int x, int y, int floor)
+    {
+        if (playerKnown)
+        {
+            if (floor != plane)
+            {
+                return false;
+            }
+
+            if (maxDistance > 0)
+            {
+                int tiles = Math.max(Math.abs(x - playerX), Math.abs(y - playerY)) / TILE_SIZE;
+                if (tiles > maxDistance)
+                {
+                    return false;
+                }
+            }
+        }
+
+        return isInCameraView(x, y);
+    }
+
+    /**
+     * Rotate into camera space as localToCanvas does, using the largest depth and
+     * the smallest screen offset any projectile height could give.
+     */
+    private boolean isInCameraView(int x, int y)
+    {
+        int dx = x - cameraX;
+        int dy = y - cameraY;
+
+        int x1 = dx * yawCos + dy * yawSin >> 16;
+        int y1 = dy * yawCos - dx * yawSin >> 16;
+
+        // Deepest the point can be for any height within the bound
+        long maxDepth = ((long) y1 * pitchCos + (long) maxDz * Math.abs(pitchSin) >> 16) + TILE_RADIUS;
+        if (maxDepth < NEAR_PLANE)
+        {
+            return false;
+        }
+
+        // Horizontal offset only shrinks with depth, so test it at the deepest point
+        long lateral = Math.max(0, Math.abs(x1) - TILE_RADIUS);
+        return lateral * scale <= (long) (halfWidth + marginPixels) * maxDepth;
+    }
+}
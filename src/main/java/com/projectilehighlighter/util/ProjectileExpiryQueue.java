@@ -0,0 +1,111 @@
+package com.projectilehighlighter.util;
+
+import net.runelite.api.Projectile;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Min-heap of projectiles ordered by end cycle, so expiry only touches the
+ * projectiles that are actually due instead of sweeping every live one.
+ * Client thread only.
+ */
+public final class ProjectileExpiryQueue
+{
+    private int[] endCycles = new int[64];
+    private Projectile[] projectiles = new Projectile[64];
+    private int size;
+
+    public void add(Projectile projectile)
+    {
+        if (size == endCycles.length)
+        {
+            endCycles = Arrays.copyOf(endCycles, size * 2);
+            projectiles = Arrays.copyOf(projectiles, size * 2);
+        }
+
+        int index = size++;
+        int endCycle = projectile.getEndCycle();
+
+        // Sift up
+        while (index > 0)
+        {
+            int parent = (index - 1) >>> 1;
+            if (endCycles[parent] <= endCycle)
+            {
+                break;
+            }
+            endCycles[index] = endCycles[parent];
+            projectiles[index] = projectiles[parent];
+            index = parent;
+        }
+        endCycles[index] = endCycle;
+        projectiles[index] = projectile;
+    }
+
+    /**
+     * Remove every projectile whose end cycle has passed and hand it to {@code expired}.
+     * The client keeps a projectile through its end cycle, so one still due to
+     * move this cycle is not dropped, or it would be seen again as a new spawn.
+     * @return the number of projectiles removed
+     */
+    public int drainDue(int gameCycle, Consumer<Projectile> expired)
+    {
+        int drained = 0;
+        while (size > 0 && endCycles[0] < gameCycle)
+        {
+            Projectile projectile = projectiles[0];
+            removeTop();
+            expired.accept(projectile);
+            drained++;
+        }
+        return drained;
+    }
+
+    public void clear()
+    {
+        Arrays.fill(projectiles, 0, size, null);
+        size = 0;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    private void removeTop()
+    {
+        int last = --size;
+        int endCycle = endCycles[last];
+        Projectile projectile = projectiles[last];
+        projectiles[last] = null;
+        if (last == 0)
+        {
+            return;
+        }
+
+        // Sift the last element down from the root
+        int index = 0;
+        while (true)
+        {
+            int child = index * 2 + 1;
+            if (child >= last)
+            {
+                break;
+            }
+            if (child + 1 < last && endCycles[child + 1] < endCycles[child])
+            {
+                child++;
+            }
+            if (endCycles[child] >= endCycle)
+            {
+                break;
+            }
+            endCycles[index] = endCycles[child];
+            projectiles[index] = projectiles[child];
+            index = child;
+        }
+        endCycles[index] = endCycle;
+        projectiles[index] = projectile;
+    }
+}
@@ -0,0 +1,168 @@
+package com.projectilehighlighter.util;
+
+import com.projectilehighlighter.ProjectileHighlighterConfig.OverlayStyle;
+import com.projectilehighlighter.model.ProjectileEntry;
+import com.projectilehighlighter.model.ProjectileGroup;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable projectile ID lookup compiled from the enabled groups.
+ * Backed by an open-addressed int table so lookups on the client thread
+ * are O(1) and allocation-free. Rebuilt whenever the groups change.
+ */
+public final class ProjectileLookup
+{
+    private static final int NO_KEY = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    public static final ProjectileLookup EMPTY = new ProjectileLookup(new int[]{NO_KEY}, new int[1], new OverlayStyle[1], new int[1], 0);
+
+    private final int[] keys;
+    private final int[] colors;
+    private final OverlayStyle[] styles;
+    private final int[] groupIndexes;
+    private final int mask;
+    private final int size;
+
+    private ProjectileLookup(int[] keys, int[] colors, OverlayStyle[] styles, int[] groupIndexes, int size)
+    {
+        this.keys = keys;
+        this.colors = colors;
+        this.styles = styles;
+        this.groupIndexes = groupIndexes;
+        this.mask = keys.length - 1;
+        this.size = size;
+    }
+
+    /**
+     * Compile a lookup from the given groups. Disabled groups and entries with
+     * unassigned (negative) IDs are skipped. When an ID appears more than once,
+     * the first enabled group in list order wins, matching the previous scan.
+     */
+    public static ProjectileLookup compile(List<ProjectileGroup> groups)
+    {
+        int entryCount = 0;
+        for (ProjectileGroup group : groups)
+        {
+            if (group.isEnabled())
+            {
+                entryCount += group.getEntryCount();
+            }
+        }
+
+        if (entryCount == 0)
+        {
+            return EMPTY;
+        }
+
+        // Keep the load factor at or below 0.5 so probe chains stay short
+        int capacity = MIN_CAPACITY;
+        while (capacity < entryCount * 2)
+        {
+            capacity <<= 1;
+        }
+
+        int[] keys = new int[capacity];
+        int[] colors = new int[capacity];
+        OverlayStyle[] styles = new OverlayStyle[capacity];
+        int[] groupIndexes = new int[capacity];
+        Arrays.fill(keys, NO_KEY);
+
+        int mask = capacity - 1;
+        int size = 0;
+        for (int groupIndex = 0; groupIndex < groups.size(); groupIndex++)
+        {
+            ProjectileGroup group = groups.get(groupIndex);
+            if (!group.isEnabled() || group.getEntries() == null)
+            {
+                continue;
+            }
+
+            for (ProjectileEntry entry : group.getEntries())
+            {
+                int projectileId = entry.getProjectileId();
+                if (projectileId < 0)
+                {
+                    continue;
+                }
+
+                int slot = hash(projectileId) & mask;
+                while (keys[slot] != NO_KEY && keys[slot] != projectileId)
+                {
+                    slot = (slot + 1) & mask;
+                }
+
+                if (keys[slot] == projectileId)
+                {
+                    continue;
+                }
+
+                keys[slot] = projectileId;
+                colors[slot] = entry.getArgb();
+                styles[slot] = entry.getOverlayStyle() != null ? entry.getOverlayStyle() : OverlayStyle.HULL;
+                groupIndexes[slot] = groupIndex;
+                size++;
+            }
+        }
+
+        return new ProjectileLookup(keys, colors, styles, groupIndexes, size);
+    }
+
+    /**
+     * Find the slot for a projectile ID.
+     * @return the slot index, or -1 if the ID is not in any enabled group
+     */
+    public int indexOf(int projectileId)
+    {
+        if (projectileId < 0)
+        {
+            return -1;
+        }
+
+        int slot = hash(projectileId) & mask;
+        while (true)
+        {
+            int key = keys[slot];
+            if (key == projectileId)
+            {
+                return slot;
+            }
+            if (key == NO_KEY)
+            {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public int getColorArgb(int slot)
+    {
+        return colors[slot];
+    }
+
+    public OverlayStyle getOverlayStyle(int slot)
+    {
+        return styles[slot];
+    }
+
+    /**
+     * Position of the group that owns the slot in the group list; lower comes first.
+     */
+    public int getGroupIndex(int slot)
+    {
+        return groupIndexes[slot];
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    private static int hash(int value)
+    {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
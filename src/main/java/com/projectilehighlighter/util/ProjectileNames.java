@@ -15,7 +15,8 @@ import java.util.Map;
 public class ProjectileNames
 {
     private static final Map<Integer, String> ID_TO_NAME = new HashMap<>();
-    private static boolean initialized = false;
+    // Volatile so a reader that sees true also sees the finished map; initialize may run off-thread
+    private static volatile boolean initialized = false;
 
     /**
      * Initialize the mapping by trying to read ProjectileID constants via reflection.
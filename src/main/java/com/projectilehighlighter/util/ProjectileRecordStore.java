@@ -0,0 +1,236 @@
+package com.projectilehighlighter.util;
+
+import com.projectilehighlighter.ProjectileHighlighterPlugin.TrackedProjectileInfo;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import net.runelite.api.Projectile;
+
+import java.util.Arrays;
+
+/**
+ * One record per live projectile instance, keyed by identity in an open-addressed
+ * table, so each ProjectileMoved event costs a single probe sequence with no boxing
+ * or entry allocation. Records are pooled and live ones are also kept in a dense
+ * array for iteration. Client thread only.
+ */
+public final class ProjectileRecordStore
+{
+    static final int MIN_CAPACITY = 64;
+
+    private Record[] table = new Record[MIN_CAPACITY];
+    private int mask = MIN_CAPACITY - 1;
+
+    private Record[] dense = new Record[MIN_CAPACITY / 2];
+    private int size;
+
+    private Record[] pool = new Record[16];
+    private int pooled;
+
+    /**
+     * @return the record for the projectile, or null if it has not been seen
+     */
+    public Record get(Projectile projectile)
+    {
+        int slot = hash(projectile) & mask;
+        Record record;
+        while ((record = table[slot]) != null)
+        {
+            if (record.projectile == projectile)
+            {
+                return record;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Get the record for the projectile, creating an unprocessed one on first sight.
+     */
+    public Record getOrCreate(Projectile projectile)
+    {
+        int slot = hash(projectile) & mask;
+        Record record;
+        while ((record = table[slot]) != null)
+        {
+            if (record.projectile == projectile)
+            {
+                return record;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (pooled > 0)
+        {
+            record = pool[--pooled];
+            pool[pooled] = null;
+        }
+        else
+        {
+            record = new Record();
+        }
+        record.projectile = projectile;
+        table[slot] = record;
+
+        if (size == dense.length)
+        {
+            dense = Arrays.copyOf(dense, size * 2);
+        }
+        record.denseIndex = size;
+        dense[size++] = record;
+
+        // Keep the load factor at or below 0.5
+        if (size * 2 > table.length)
+        {
+            rehash(table.length * 2);
+        }
+        return record;
+    }
+
+    /**
+     * Set or clear what a record is drawn with.
+     */
+    public void track(Record record, TrackedProjectileInfo info)
+    {
+        record.info = info;
+    }
+
+    /**
+     * Drop the record for a projectile and return it to the pool.
+     * @return whether a record existed
+     */
+    public boolean remove(Projectile projectile)
+    {
+        int slot = hash(projectile) & mask;
+        Record record;
+        while ((record = table[slot]) != null)
+        {
+            if (record.projectile == projectile)
+            {
+                deleteSlot(slot);
+                removeDense(record);
+                release(record);
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public void clear()
+    {
+        for (int i = 0; i < size; i++)
+        {
+            release(dense[i]);
+            dense[i] = null;
+        }
+        Arrays.fill(table, null);
+        size = 0;
+    }
+
+    /**
+     * Live record at a dense index, for iteration from 0 to {@link #size()}.
+     */
+    public Record get(int index)
+    {
+        return dense[index];
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Backward-shift deletion, so linear probing needs no tombstones.
+     */
+    private void deleteSlot(int slot)
+    {
+        int hole = slot;
+        int next = (slot + 1) & mask;
+        Record record;
+        while ((record = table[next]) != null)
+        {
+            int home = hash(record.projectile) & mask;
+            // Move the record into the hole unless its home lies cyclically in (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask))
+            {
+                table[hole] = record;
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[hole] = null;
+    }
+
+    private void removeDense(Record record)
+    {
+        int index = record.denseIndex;
+        Record last = dense[--size];
+        dense[index] = last;
+        last.denseIndex = index;
+        dense[size] = null;
+    }
+
+    private void release(Record record)
+    {
+        record.reset();
+        if (pooled == pool.length)
+        {
+            pool = Arrays.copyOf(pool, pooled * 2);
+        }
+        pool[pooled++] = record;
+    }
+
+    private void rehash(int capacity)
+    {
+        table = new Record[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < size; i++)
+        {
+            Record record = dense[i];
+            int slot = hash(record.projectile) & mask;
+            while (table[slot] != null)
+            {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = record;
+        }
+    }
+
+    // Package-private so tests can pick projectiles that collide
+    static int hash(Projectile projectile)
+    {
+        int h = System.identityHashCode(projectile) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Everything the plugin knows about one projectile instance.
+     */
+    @Getter
+    public static final class Record
+    {
+        private Projectile projectile;
+        // Tracked paint info, null when the projectile is not highlighted
+        private TrackedProjectileInfo info;
+        // Whether the first-sighting work (recent list, expiry) has been done
+        @Setter
+        private boolean processed;
+        // Last client cycle the projectile was seen in the client's list (poll ingestion only)
+        @Setter
+        private int seenCycle;
+        @Getter(AccessLevel.NONE)
+        private int denseIndex;
+
+        private void reset()
+        {
+            projectile = null;
+            info = null;
+            processed = false;
+            seenCycle = 0;
+            denseIndex = -1;
+        }
+    }
+}
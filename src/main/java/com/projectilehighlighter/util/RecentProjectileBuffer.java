@@ -0,0 +1,76 @@
+package com.projectilehighlighter.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Lock-free single-producer/single-consumer ring buffer of recent projectile sightings.
+ * The client thread offers, the EDT drains. Each side only writes its own index,
+ * and the ordered index writes publish the slot contents to the other side.
+ */
+public final class RecentProjectileBuffer
+{
+    private final int[] ids;
+    private final String[] sources;
+    private final int mask;
+
+    // Next slot to read (written by the consumer only)
+    private final AtomicLong head = new AtomicLong();
+    // Next slot to write (written by the producer only)
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity maximum number of pending sightings, rounded up to a power of two
+     */
+    public RecentProjectileBuffer(int capacity)
+    {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ids = new int[size];
+        this.sources = new String[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Producer side. Returns false without blocking if the buffer is full.
+     */
+    public boolean offer(int projectileId, String sourceName)
+    {
+        long t = tail.get();
+        if (t - head.get() > mask)
+        {
+            return false;
+        }
+
+        int index = (int) t & mask;
+        ids[index] = projectileId;
+        sources[index] = sourceName;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Consumer side. Hands every pending sighting to {@code sink} in arrival order.
+     * @return the number of sightings drained
+     */
+    public int drain(ObjIntConsumer<String> sink)
+    {
+        long h = head.get();
+        long t = tail.get();
+        int drained = 0;
+        for (; h < t; h++)
+        {
+            int index = (int) h & mask;
+            String sourceName = sources[index];
+            sources[index] = null;
+            sink.accept(sourceName, ids[index]);
+            drained++;
+        }
+        head.lazySet(h);
+        return drained;
+    }
+
+    public boolean isEmpty()
+    {
+        return head.get() == tail.get();
+    }
+}
@@ -0,0 +1,162 @@
+package com.projectilehighlighter.util;
+
+import com.projectilehighlighter.ProjectileHighlighterPlugin.TrackedProjectileInfo;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Compact snapshot of what the overlay should draw, built by the plugin once per
+ * client tick. Positions and the rest of each projectile's per-cycle state live in
+ * parallel primitive arrays, and paint is an index into a small table of distinct
+ * flyweights. The plugin fills a back list and swaps it to the front; the overlay
+ * only ever reads the front.
+ */
+public final class RenderList
+{
+    // Lowest group rank, for tracked projectiles that are not in any group
+    public static final int UNGROUPED = Integer.MAX_VALUE;
+
+    // Incremented by the builder on every rebuild, so readers can tell lists apart
+    @Getter
+    private int sequence;
+    private int size;
+
+    private int[] xs = new int[32];
+    private int[] ys = new int[32];
+    private int[] heights = new int[32];
+    private int[] floors = new int[32];
+    private int[] ids = new int[32];
+    private int[] paintIndexes = new int[32];
+    private int[] groupRanks = new int[32];
+    private boolean[] targetingPlayer = new boolean[32];
+
+    private TrackedProjectileInfo[] paints = new TrackedProjectileInfo[8];
+    private int paintCount;
+    // Slot in paints for each flyweight intern index, -1 when it is not in this list
+    private int[] paintSlots = newPaintSlots(8);
+
+    /**
+     * Start rebuilding this list, dropping its previous contents.
+     */
+    public void begin(int sequence)
+    {
+        this.sequence = sequence;
+        this.size = 0;
+        for (int i = 0; i < paintCount; i++)
+        {
+            paintSlots[paints[i].getInternIndex()] = -1;
+            paints[i] = null;
+        }
+        this.paintCount = 0;
+    }
+
+    public void add(int x, int y, int height, int floor, int projectileId, TrackedProjectileInfo paint,
+                    int groupRank, boolean targetsPlayer)
+    {
+        if (size == xs.length)
+        {
+            int capacity = size * 2;
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            heights = Arrays.copyOf(heights, capacity);
+            floors = Arrays.copyOf(floors, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            paintIndexes = Arrays.copyOf(paintIndexes, capacity);
+            groupRanks = Arrays.copyOf(groupRanks, capacity);
+            targetingPlayer = Arrays.copyOf(targetingPlayer, capacity);
+        }
+
+        xs[size] = x;
+        ys[size] = y;
+        heights[size] = height;
+        floors[size] = floor;
+        ids[size] = projectileId;
+        paintIndexes[size] = paintIndexOf(paint);
+        groupRanks[size] = groupRank;
+        targetingPlayer[size] = targetsPlayer;
+        size++;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public int getX(int index)
+    {
+        return xs[index];
+    }
+
+    public int getY(int index)
+    {
+        return ys[index];
+    }
+
+    public int getHeight(int index)
+    {
+        return heights[index];
+    }
+
+    public int getFloor(int index)
+    {
+        return floors[index];
+    }
+
+    public int getProjectileId(int index)
+    {
+        return ids[index];
+    }
+
+    public TrackedProjectileInfo getPaint(int index)
+    {
+        return paints[paintIndexes[index]];
+    }
+
+    /**
+     * Position of the projectile's group in the group list, or {@link #UNGROUPED}.
+     */
+    public int getGroupRank(int index)
+    {
+        return groupRanks[index];
+    }
+
+    public boolean isTargetingPlayer(int index)
+    {
+        return targetingPlayer[index];
+    }
+
+    private int paintIndexOf(TrackedProjectileInfo paint)
+    {
+        int key = paint.getInternIndex();
+        if (key >= paintSlots.length)
+        {
+            int[] grown = newPaintSlots(Math.max(key + 1, paintSlots.length * 2));
+            System.arraycopy(paintSlots, 0, grown, 0, paintSlots.length);
+            paintSlots = grown;
+        }
+
+        int slot = paintSlots[key];
+        if (slot >= 0 && paints[slot] == paint)
+        {
+            return slot;
+        }
+
+        // New to this list, or a flyweight from the previous config version that shares the
+        // intern index until the plugin re-interns its records; either way it gets its own slot
+        if (paintCount == paints.length)
+        {
+            paints = Arrays.copyOf(paints, paintCount * 2);
+        }
+        paints[paintCount] = paint;
+        paintSlots[key] = paintCount;
+        return paintCount++;
+    }
+
+    private static int[] newPaintSlots(int capacity)
+    {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, -1);
+        return slots;
+    }
+}
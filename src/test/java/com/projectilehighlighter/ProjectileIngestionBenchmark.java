@@ -0,0 +1,219 @@
+package com.projectilehighlighter;
+
+import com.google.gson.Gson;
+import com.projectilehighlighter.util.GroupStorage;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import net.runelite.api.Client;
+import net.runelite.api.Projectile;
+import net.runelite.api.events.ClientTick;
+import net.runelite.api.events.ProjectileMoved;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Microbenchmark of the two projectile ingestion modes. Each run drives a fresh plugin
+ * through the same simulated fight: a fixed number of projectiles spawn every client
+ * cycle and leave the client's list at their end cycle. In event mode a
+ * ProjectileMoved is posted for every live projectile every cycle, as the client does
+ * for projectiles following a moving target; in poll mode only the client tick is
+ * posted. The cost per client tick of each mode is printed, and both modes are checked
+ * to end up tracking exactly the projectiles that are still live. Not part of the
+ * regular test run; use {@code ./gradlew benchmark}.
+ */
+public class ProjectileIngestionBenchmark
+{
+	private static final int SPAWNS_PER_CYCLE = 4;
+	private static final int LIFETIME_CYCLES = 60;
+	private static final int WARMUP_CYCLES = 2_000;
+	private static final int MEASURED_CYCLES = 10_000;
+
+	@Test
+	public void compareIngestionModes() throws Exception
+	{
+		// Run each mode twice and report the second, so both see a warm JIT
+		run(ProjectileHighlighterConfig.IngestionMode.EVENT);
+		run(ProjectileHighlighterConfig.IngestionMode.POLL);
+		long eventNanos = run(ProjectileHighlighterConfig.IngestionMode.EVENT);
+		long pollNanos = run(ProjectileHighlighterConfig.IngestionMode.POLL);
+
+		int live = SPAWNS_PER_CYCLE * (LIFETIME_CYCLES + 1);
+		System.out.printf("Ingestion with ~%d live projectiles: event %d ns per client tick, poll %d ns per client tick%n",
+			live, eventNanos / MEASURED_CYCLES, pollNanos / MEASURED_CYCLES);
+	}
+
+	/**
+	 * @return total nanoseconds spent in the plugin's event handlers over the measured cycles
+	 */
+	private static long run(ProjectileHighlighterConfig.IngestionMode mode) throws Exception
+	{
+		SimulatedClient simulated = new SimulatedClient();
+		ProjectileHighlighterPlugin plugin = newPlugin(simulated.client, mode);
+		ClientTick tick = new ClientTick();
+		ProjectileMoved moved = new ProjectileMoved();
+		boolean events = mode == ProjectileHighlighterConfig.IngestionMode.EVENT;
+
+		long elapsed = 0;
+		for (int i = 0; i < WARMUP_CYCLES + MEASURED_CYCLES; i++)
+		{
+			simulated.advance();
+
+			long start = System.nanoTime();
+			if (events)
+			{
+				for (Projectile projectile : simulated.projectiles)
+				{
+					moved.setProjectile(projectile);
+					plugin.onProjectileMoved(moved);
+				}
+			}
+			plugin.onClientTick(tick);
+			if (i >= WARMUP_CYCLES)
+			{
+				elapsed += System.nanoTime() - start;
+			}
+		}
+
+		assertEquals(mode + " records", simulated.projectiles.size(), plugin.getProjectileRecords().size());
+		assertEquals(mode + " render list", simulated.projectiles.size(), plugin.getRenderList().size());
+		return elapsed;
+	}
+
+	private static ProjectileHighlighterPlugin newPlugin(Client client, ProjectileHighlighterConfig.IngestionMode mode) throws Exception
+	{
+		// Highlight everything so every spawn is classified and tracked, without a group library on disk
+		ProjectileHighlighterConfig config = config(Map.of(
+			"highlightAll", true,
+			"ingestionMode", mode));
+
+		ProjectileHighlighterPlugin plugin = new ProjectileHighlighterPlugin();
+		inject(plugin, "client", client);
+		inject(plugin, "config", config);
+		inject(plugin, "configSnapshot", ConfigSnapshot.of(config, 1));
+		inject(plugin, "groupStorage", new GroupStorage(new Gson(), config.storageFormat()));
+		return plugin;
+	}
+
+	private static void inject(Object target, String name, Object value) throws ReflectiveOperationException
+	{
+		Field field = target.getClass().getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(target, value);
+	}
+
+	/**
+	 * Config proxy that answers from the overrides, falling back to the interface defaults.
+	 */
+	private static ProjectileHighlighterConfig config(Map<String, Object> overrides)
+	{
+		return (ProjectileHighlighterConfig) Proxy.newProxyInstance(ProjectileHighlighterConfig.class.getClassLoader(),
+			new Class<?>[]{ProjectileHighlighterConfig.class},
+			(proxy, method, args) ->
+			{
+				Object value = overrides.get(method.getName());
+				if (value != null)
+				{
+					return value;
+				}
+				return MethodHandles.privateLookupIn(ProjectileHighlighterConfig.class, MethodHandles.lookup())
+					.unreflectSpecial(method, ProjectileHighlighterConfig.class)
+					.bindTo(proxy)
+					.invokeWithArguments();
+			});
+	}
+
+	/**
+	 * Client stand-in holding the projectile list and game cycle the plugin reads.
+	 */
+	private static final class SimulatedClient
+	{
+		private final Deque<Projectile> projectiles = new ArrayDeque<>();
+		private final Client client;
+		private int cycle;
+		private int nextId;
+
+		SimulatedClient()
+		{
+			client = (Client) Proxy.newProxyInstance(Client.class.getClassLoader(), new Class<?>[]{Client.class},
+				(proxy, method, args) ->
+				{
+					switch (method.getName())
+					{
+						case "getGameCycle":
+							return cycle;
+						case "getProjectiles":
+							return projectiles;
+						default:
+							return defaultValue(method);
+					}
+				});
+		}
+
+		/**
+		 * Move to the next cycle: drop projectiles past their end cycle and spawn new ones.
+		 */
+		void advance()
+		{
+			cycle++;
+			for (Iterator<Projectile> it = projectiles.iterator(); it.hasNext(); )
+			{
+				if (it.next().getEndCycle() < cycle)
+				{
+					it.remove();
+				}
+			}
+			for (int i = 0; i < SPAWNS_PER_CYCLE; i++)
+			{
+				// Cycle through a few hundred IDs, as a fight mixes many projectile types
+				projectiles.add(projectile(1000 + nextId++ % 300, cycle, cycle + LIFETIME_CYCLES));
+			}
+		}
+	}
+
+	private static Projectile projectile(int id, int startCycle, int endCycle)
+	{
+		return (Projectile) Proxy.newProxyInstance(Projectile.class.getClassLoader(), new Class<?>[]{Projectile.class},
+			(proxy, method, args) ->
+			{
+				switch (method.getName())
+				{
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					case "getId":
+						return id;
+					case "getStartCycle":
+						return startCycle;
+					case "getEndCycle":
+						return endCycle;
+					default:
+						return defaultValue(method);
+				}
+			});
+	}
+
+	private static Object defaultValue(Method method)
+	{
+		Class<?> type = method.getReturnType();
+		if (type == int.class)
+		{
+			return 0;
+		}
+		if (type == double.class)
+		{
+			return 0.0;
+		}
+		if (type == boolean.class)
+		{
+			return false;
+		}
+		return null;
+	}
+}
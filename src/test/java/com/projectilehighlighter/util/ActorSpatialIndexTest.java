@@ -0,0 +1,137 @@
+package com.projectilehighlighter.util;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import net.runelite.api.Actor;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ActorSpatialIndexTest
+{
+	@Test
+	public void findsTheClosestActorInAndAroundTheGrid()
+	{
+		Random random = new Random(3);
+		for (int round = 0; round < 50; round++)
+		{
+			List<Actor> actors = new ArrayList<>();
+			for (int i = random.nextInt(40) + 1; i > 0; i--)
+			{
+				int x = 3200 + random.nextInt(100);
+				int y = 3200 + random.nextInt(100);
+				actors.add(actor("Actor " + i, x, y, random.nextInt(2)));
+			}
+			ActorSpatialIndex index = new ActorSpatialIndex();
+			index.build(actors, Actor::getName);
+
+			for (int query = 0; query < 200; query++)
+			{
+				// Some queries land well outside the occupied area
+				int x = 3000 + random.nextInt(500);
+				int y = 3000 + random.nextInt(500);
+				WorldPoint world = new WorldPoint(x, y, random.nextInt(2));
+				assertEquals(closestWorld(actors, world), distance(index, index.findClosest(world, null)));
+
+				LocalPoint local = new LocalPoint((x - 3000) * 128, (y - 3000) * 128);
+				assertEquals(closestLocal(actors, local), distance(index, index.findClosest(local, null)));
+			}
+		}
+	}
+
+	@Test
+	public void findsActorsFromFarOutsideTheGrid()
+	{
+		Actor near = actor("Near", 3210, 3210, 0);
+		Actor far = actor("Far", 3220, 3220, 0);
+		ActorSpatialIndex index = new ActorSpatialIndex();
+		List<Actor> actors = new ArrayList<>();
+		actors.add(far);
+		actors.add(near);
+		index.build(actors, Actor::getName);
+
+		int slot = index.findClosest(new WorldPoint(100, 150, 0), null);
+		assertSame(near, index.getActor(slot));
+		assertEquals(3110, index.getLastDistance());
+
+		slot = index.findClosest(new LocalPoint(-1_000_000, 0), null);
+		assertSame(near, index.getActor(slot));
+	}
+
+	@Test
+	public void skipsTheExcludedActor()
+	{
+		Actor near = actor("Near", 3210, 3210, 0);
+		Actor far = actor("Far", 3240, 3240, 0);
+		ActorSpatialIndex index = new ActorSpatialIndex();
+		List<Actor> actors = new ArrayList<>();
+		actors.add(near);
+		actors.add(far);
+		index.build(actors, Actor::getName);
+
+		assertSame(far, index.getActor(index.findClosest(new WorldPoint(3211, 3211, 0), near)));
+		assertEquals(-1, index.findClosest(new WorldPoint(3211, 3211, 1), null));
+	}
+
+	private static int distance(ActorSpatialIndex index, int slot)
+	{
+		return slot < 0 ? Integer.MAX_VALUE : index.getLastDistance();
+	}
+
+	private static int closestWorld(List<Actor> actors, WorldPoint point)
+	{
+		int best = Integer.MAX_VALUE;
+		for (Actor actor : actors)
+		{
+			WorldPoint location = actor.getWorldLocation();
+			if (location.getPlane() == point.getPlane())
+			{
+				best = Math.min(best, Math.max(Math.abs(location.getX() - point.getX()), Math.abs(location.getY() - point.getY())));
+			}
+		}
+		return best;
+	}
+
+	private static int closestLocal(List<Actor> actors, LocalPoint point)
+	{
+		int best = Integer.MAX_VALUE;
+		for (Actor actor : actors)
+		{
+			int dx = actor.getLocalLocation().getX() - point.getX();
+			int dy = actor.getLocalLocation().getY() - point.getY();
+			best = Math.min(best, (int) Math.sqrt((long) dx * dx + (long) dy * dy));
+		}
+		return best;
+	}
+
+	/**
+	 * Actor at a world tile, with a local position that puts world tile 3000,3000 at the scene origin.
+	 */
+	private static Actor actor(String name, int x, int y, int plane)
+	{
+		WorldPoint world = new WorldPoint(x, y, plane);
+		LocalPoint local = new LocalPoint((x - 3000) * 128, (y - 3000) * 128);
+		return (Actor) Proxy.newProxyInstance(Actor.class.getClassLoader(), new Class<?>[]{Actor.class}, (proxy, method, args) ->
+		{
+			switch (method.getName())
+			{
+				case "getName":
+					return name;
+				case "getWorldLocation":
+					return world;
+				case "getLocalLocation":
+					return local;
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "equals":
+					return proxy == args[0];
+				default:
+					return null;
+			}
+		});
+	}
+}
@@ -0,0 +1,197 @@
+package com.projectilehighlighter.util;
+
+import com.projectilehighlighter.ProjectileHighlighterConfig.OverlayStyle;
+import com.projectilehighlighter.model.ProjectileEntry;
+import com.projectilehighlighter.model.ProjectileGroup;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GroupBinaryFormatTest
+{
+	@Test
+	public void roundTripsVarintAndZigzagEdges() throws IOException
+	{
+		// Around each varint byte boundary, both signs, and the ends of the int range
+		int[] ids = {0, 1, -1, 63, -64, 64, -65, 127, 128, 8191, -8192, 8192, 1 << 20, -(1 << 20),
+			Integer.MAX_VALUE, Integer.MAX_VALUE - 1, Integer.MIN_VALUE, Integer.MIN_VALUE + 1};
+		List<ProjectileEntry> entries = new ArrayList<>();
+		for (int id : ids)
+		{
+			entries.add(entry(id, null, 0, 0, null));
+		}
+		List<ProjectileGroup> groups = Collections.singletonList(new ProjectileGroup("ids", "IDs", true, entries));
+
+		assertEquals(groups, roundTrip(groups));
+	}
+
+	@Test
+	public void negativeIdsStayShort() throws IOException
+	{
+		// Zigzag keeps small negative IDs to one byte instead of a five byte varint
+		int positive = encode(Collections.singletonList(new ProjectileGroup("g", null, true,
+			Collections.singletonList(entry(1, null, 0, 0, null))))).length;
+		int negative = encode(Collections.singletonList(new ProjectileGroup("g", null, true,
+			Collections.singletonList(entry(-1, null, 0, 0, null))))).length;
+		assertEquals(positive, negative);
+	}
+
+	@Test
+	public void roundTripsEveryFieldValue() throws IOException
+	{
+		List<ProjectileEntry> entries = new ArrayList<>();
+		entries.add(entry(1, null, 0x000000, 0, null));
+		entries.add(entry(2, "", 0xFFFFFF, 255, OverlayStyle.HULL));
+		entries.add(entry(3, "Dragonfire é中🔥", 0x123456, 128, OverlayStyle.TILE));
+		// A name shared with the group and another entry is stored once and read back for both
+		entries.add(entry(4, "Shared", 0xABCDEF, 1, OverlayStyle.OUTLINE));
+		for (OverlayStyle style : OverlayStyle.values())
+		{
+			entries.add(entry(10 + style.ordinal(), "Shared", 0x00FF00, 200, style));
+		}
+
+		List<ProjectileGroup> groups = Arrays.asList(
+			new ProjectileGroup("a", "Shared", true, entries),
+			new ProjectileGroup("b", null, false, new ArrayList<>()),
+			new ProjectileGroup("c", "", true, new ArrayList<>()));
+
+		assertEquals(groups, roundTrip(groups));
+	}
+
+	@Test
+	public void roundTripsLargeLibraries() throws IOException
+	{
+		for (int size : new int[]{100, 10_000, 100_000})
+		{
+			List<ProjectileGroup> groups = GroupFormatBenchmark.library(size, new Random(size));
+			assertEquals(size + " entries", groups, roundTrip(groups));
+		}
+	}
+
+	@Test
+	public void rejectsWrongMagicAndVersion()
+	{
+		byte[] valid = encode(GroupFormatBenchmark.library(100, new Random(1)));
+
+		byte[] magic = valid.clone();
+		magic[0] = '{';
+		assertRejected(magic);
+
+		byte[] version = valid.clone();
+		version[4] = 2;
+		assertRejected(version);
+	}
+
+	@Test
+	public void rejectsEveryTruncation()
+	{
+		byte[] valid = encode(GroupFormatBenchmark.library(100, new Random(2)));
+		for (int length = 0; length < valid.length; length++)
+		{
+			assertRejected(Arrays.copyOf(valid, length));
+		}
+	}
+
+	@Test
+	public void rejectsCountsTheDataCannotHold()
+	{
+		// Header, then a string count of Integer.MAX_VALUE; must not try to allocate for it
+		assertRejected(bytes(0x50, 0x48, 0x47, 0x42, 1, 0xFF, 0xFF, 0xFF, 0xFF, 0x07, 0));
+		// Negative count
+		assertRejected(bytes(0x50, 0x48, 0x47, 0x42, 1, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F, 0));
+		// One string claiming to be far longer than the file
+		assertRejected(bytes(0x50, 0x48, 0x47, 0x42, 1, 1, 0xFF, 0xFF, 0x03, 'a'));
+	}
+
+	@Test
+	public void rejectsMalformedVarint()
+	{
+		// Continuation bit still set on the fifth byte of the version
+		assertRejected(bytes(0x50, 0x48, 0x47, 0x42, 0x81, 0x80, 0x80, 0x80, 0x80, 0x01, 0, 0));
+	}
+
+	@Test
+	public void rejectsOutOfRangeIndexesAndStyles() throws IOException
+	{
+		List<ProjectileGroup> groups = Collections.singletonList(new ProjectileGroup("g", "Name", true,
+			Collections.singletonList(entry(5, null, 0, 0, OverlayStyle.FILLED))));
+		byte[] valid = encode(groups);
+		// magic, version, 2 strings ("g", "Name"), 1 group, id index, name index, enabled, 1 entry,
+		// id, name index, argb, style
+		int groupStart = 4 + 1 + 1 + (1 + 1) + (1 + 4) + 1;
+		int style = valid.length - 1;
+		assertEquals(groups, GroupBinaryFormat.read(ByteBuffer.wrap(valid)));
+
+		byte[] badId = valid.clone();
+		badId[groupStart] = 5;
+		assertRejected(badId);
+
+		byte[] badName = valid.clone();
+		badName[groupStart + 1] = 9;
+		assertRejected(badName);
+
+		byte[] badStyle = valid.clone();
+		badStyle[style] = (byte) (OverlayStyle.values().length + 1);
+		assertRejected(badStyle);
+
+		byte[] negativeStyle = valid.clone();
+		negativeStyle[style] = (byte) 0xFF;
+		assertRejected(negativeStyle);
+	}
+
+	private static List<ProjectileGroup> roundTrip(List<ProjectileGroup> groups) throws IOException
+	{
+		return GroupBinaryFormat.read(ByteBuffer.wrap(encode(groups)));
+	}
+
+	private static byte[] encode(List<ProjectileGroup> groups)
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try
+		{
+			GroupBinaryFormat.write(groups, out);
+		}
+		catch (IOException e)
+		{
+			throw new AssertionError(e);
+		}
+		return out.toByteArray();
+	}
+
+	private static void assertRejected(byte[] data)
+	{
+		try
+		{
+			GroupBinaryFormat.read(ByteBuffer.wrap(data));
+			fail("Accepted " + data.length + " bytes of corrupt data");
+		}
+		catch (IOException e)
+		{
+			assertTrue(e.getMessage() != null);
+		}
+	}
+
+	private static byte[] bytes(int... values)
+	{
+		byte[] bytes = new byte[values.length];
+		for (int i = 0; i < values.length; i++)
+		{
+			bytes[i] = (byte) values[i];
+		}
+		return bytes;
+	}
+
+	private static ProjectileEntry entry(int id, String name, int rgb, int alpha, OverlayStyle style)
+	{
+		return new ProjectileEntry(id, name, rgb, alpha, style);
+	}
+}
@@ -0,0 +1,171 @@
+package com.projectilehighlighter.util;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.projectilehighlighter.ProjectileHighlighterConfig.OverlayStyle;
+import com.projectilehighlighter.model.ProjectileEntry;
+import com.projectilehighlighter.model.ProjectileGroup;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the two group file formats on generated libraries of 100, 10,000 and
+ * 100,000 entries. Each library is written and read back through
+ * {@link GroupBinaryFormat} and through the streaming JSON adapters, the same calls
+ * {@link GroupStorage} makes, and the file size, best time and bytes allocated on
+ * this thread are printed for each direction. Not part of the regular test run; use
+ * {@code ./gradlew benchmark}.
+ */
+public class GroupFormatBenchmark
+{
+	private static final int[] SIZES = {100, 10_000, 100_000};
+	private static final int ENTRIES_PER_GROUP = 50;
+	private static final int RUNS = 5;
+
+	private final Gson gson = GroupJsonAdapters.register(new Gson());
+
+	@Test
+	public void compareFormats() throws IOException
+	{
+		for (int size : SIZES)
+		{
+			List<ProjectileGroup> groups = library(size, new Random(size));
+			report(size, "binary", new Codec()
+			{
+				@Override
+				public byte[] write(List<ProjectileGroup> groups) throws IOException
+				{
+					ByteArrayOutputStream out = new ByteArrayOutputStream();
+					GroupBinaryFormat.write(groups, out);
+					return out.toByteArray();
+				}
+
+				@Override
+				public List<ProjectileGroup> read(byte[] data) throws IOException
+				{
+					return GroupBinaryFormat.read(ByteBuffer.wrap(data));
+				}
+			}, groups);
+			report(size, "json", new Codec()
+			{
+				@Override
+				public byte[] write(List<ProjectileGroup> groups) throws IOException
+				{
+					ByteArrayOutputStream out = new ByteArrayOutputStream();
+					try (JsonWriter json = gson.newJsonWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))))
+					{
+						GroupJsonAdapters.writeGroups(json, groups);
+					}
+					return out.toByteArray();
+				}
+
+				@Override
+				public List<ProjectileGroup> read(byte[] data) throws IOException
+				{
+					try (JsonReader json = gson.newJsonReader(new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8)))
+					{
+						return GroupJsonAdapters.readGroups(json);
+					}
+				}
+			}, groups);
+		}
+	}
+
+	private interface Codec
+	{
+		byte[] write(List<ProjectileGroup> groups) throws IOException;
+
+		List<ProjectileGroup> read(byte[] data) throws IOException;
+	}
+
+	private static void report(int size, String format, Codec codec, List<ProjectileGroup> groups) throws IOException
+	{
+		byte[] data = null;
+		List<ProjectileGroup> read = null;
+		long bestWrite = Long.MAX_VALUE;
+		long bestRead = Long.MAX_VALUE;
+		long writeAllocated = 0;
+		long readAllocated = 0;
+		for (int run = 0; run < RUNS; run++)
+		{
+			long allocated = allocatedBytes();
+			long start = System.nanoTime();
+			data = codec.write(groups);
+			bestWrite = Math.min(bestWrite, System.nanoTime() - start);
+			writeAllocated = allocatedBytes() - allocated;
+
+			allocated = allocatedBytes();
+			start = System.nanoTime();
+			read = codec.read(data);
+			bestRead = Math.min(bestRead, System.nanoTime() - start);
+			readAllocated = allocatedBytes() - allocated;
+		}
+		assertEquals(format + " " + size, groups, read);
+
+		System.out.printf("%,7d entries %-6s %,11d bytes  write %,8d us %,13d B allocated  read %,8d us %,13d B allocated%n",
+			size, format, data.length, bestWrite / 1000, writeAllocated, bestRead / 1000, readAllocated);
+	}
+
+	/**
+	 * Bytes allocated by this thread so far, or 0 where the JVM doesn't track it or
+	 * doesn't have the com.sun.management extension at all.
+	 */
+	private static long allocatedBytes()
+	{
+		try
+		{
+			ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+			if (threads instanceof com.sun.management.ThreadMXBean)
+			{
+				return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		catch (LinkageError e)
+		{
+			// Not a HotSpot-derived JVM
+		}
+		return 0;
+	}
+
+	/**
+	 * Library with the given number of entries, spread over groups of
+	 * {@value #ENTRIES_PER_GROUP}. Names repeat the way a real library's do, and some
+	 * entries have no name or style.
+	 */
+	static List<ProjectileGroup> library(int entryCount, Random random)
+	{
+		OverlayStyle[] styles = OverlayStyle.values();
+		List<ProjectileGroup> groups = new ArrayList<>();
+		for (int made = 0; made < entryCount; )
+		{
+			List<ProjectileEntry> entries = new ArrayList<>();
+			for (int i = 0; i < ENTRIES_PER_GROUP && made < entryCount; i++, made++)
+			{
+				entries.add(new ProjectileEntry(
+					random.nextInt(4000) - 100,
+					random.nextInt(4) == 0 ? null : "Projectile " + random.nextInt(500),
+					random.nextInt(0x1000000),
+					random.nextInt(256),
+					random.nextInt(5) == 0 ? null : styles[random.nextInt(styles.length)]));
+			}
+			groups.add(new ProjectileGroup(new UUID(random.nextLong(), random.nextLong()).toString(),
+				"Group " + groups.size(), random.nextBoolean(), entries));
+		}
+		return groups;
+	}
+}
@@ -0,0 +1,142 @@
+package com.projectilehighlighter.util;
+
+import com.google.gson.Gson;
+import com.projectilehighlighter.ProjectileHighlighterConfig.OverlayStyle;
+import com.projectilehighlighter.model.ProjectileEntry;
+import com.projectilehighlighter.model.ProjectileGroup;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GroupJournalTest
+{
+	private static final long SNAPSHOT = GroupJournal.snapshotId(1234, 0xCAFEBABEL);
+	private static final long NEXT_SNAPSHOT = GroupJournal.snapshotId(1300, 0x12345678L);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final Gson gson = GroupJsonAdapters.register(new Gson());
+	private File file;
+
+	@Before
+	public void setUp() throws IOException
+	{
+		file = new File(folder.getRoot(), "groups.journal");
+	}
+
+	@Test
+	public void replayRepeatsEveryEdit() throws IOException
+	{
+		List<ProjectileGroup> base = new ArrayList<>(Arrays.asList(group("a", 1, 2, 3), group("b", 4)));
+		GroupJournal journal = new GroupJournal(file, gson);
+		assertEquals(0, journal.replay(copyOf(base), SNAPSHOT));
+		assertTrue(journal.isAppendable());
+
+		ProjectileGroup added = group("c", 9);
+		ProjectileGroup replaced = group("b", 5, 6);
+		replaced.setName("Renamed");
+		ProjectileGroup disabled = group("a", 1, 2, 3);
+		disabled.setEnabled(false);
+		journal.append(Arrays.asList(
+			journal.addGroup(1, added),
+			// Changing an entry's ID keeps its place in the list
+			journal.putEntry("a", 2, entry(20)),
+			journal.putEntry("a", 7, entry(7)),
+			journal.removeEntry("a", 1),
+			journal.setGroup(disabled),
+			journal.replaceGroup(replaced),
+			journal.removeGroup("c")));
+
+		List<ProjectileGroup> replayed = copyOf(base);
+		assertEquals(7, new GroupJournal(file, gson).replay(replayed, SNAPSHOT));
+
+		ProjectileGroup a = group("a", 20, 3, 7);
+		a.setEnabled(false);
+		assertEquals(Arrays.asList(a, replaced), replayed);
+	}
+
+	@Test
+	public void journalFromAnEarlierSnapshotIsIgnored() throws IOException
+	{
+		GroupJournal journal = new GroupJournal(file, gson);
+		journal.replay(new ArrayList<>(), SNAPSHOT);
+		journal.append(Arrays.asList(journal.addGroup(0, group("a", 1))));
+
+		// As if compaction wrote the next snapshot and crashed before resetting the journal
+		List<ProjectileGroup> groups = new ArrayList<>();
+		GroupJournal reloaded = new GroupJournal(file, gson);
+		assertEquals(0, reloaded.replay(groups, NEXT_SNAPSHOT));
+		assertTrue(groups.isEmpty());
+		assertFalse(reloaded.isAppendable());
+
+		reloaded.reset(NEXT_SNAPSHOT);
+		assertTrue(reloaded.isAppendable());
+		reloaded.append(Arrays.asList(reloaded.addGroup(0, group("b", 2))));
+		assertEquals(1, new GroupJournal(file, gson).replay(groups, NEXT_SNAPSHOT));
+		assertEquals(Arrays.asList(group("b", 2)), groups);
+	}
+
+	@Test
+	public void tornRecordStopsReplayAndBlocksAppends() throws IOException
+	{
+		GroupJournal journal = new GroupJournal(file, gson);
+		journal.replay(new ArrayList<>(), SNAPSHOT);
+		journal.append(Arrays.asList(journal.addGroup(0, group("a", 1))));
+		String torn = journal.addGroup(1, group("b", 2));
+		Files.write(file.toPath(), torn.substring(0, torn.length() / 2).getBytes(StandardCharsets.UTF_8),
+			StandardOpenOption.APPEND);
+
+		List<ProjectileGroup> groups = new ArrayList<>();
+		GroupJournal reloaded = new GroupJournal(file, gson);
+		assertEquals(1, reloaded.replay(groups, SNAPSHOT));
+		assertEquals(Arrays.asList(group("a", 1)), groups);
+		// Anything appended after the torn line would never be replayed
+		assertFalse(reloaded.isAppendable());
+	}
+
+	private static List<ProjectileGroup> copyOf(List<ProjectileGroup> groups)
+	{
+		List<ProjectileGroup> copy = new ArrayList<>();
+		for (ProjectileGroup group : groups)
+		{
+			copy.add(group.copy());
+		}
+		return copy;
+	}
+
+	private static ProjectileGroup group(String id, int... projectileIds)
+	{
+		ProjectileGroup group = new ProjectileGroup();
+		group.setId(id);
+		group.setName("Group " + id);
+		for (int projectileId : projectileIds)
+		{
+			group.addEntry(entry(projectileId));
+		}
+		return group;
+	}
+
+	private static ProjectileEntry entry(int projectileId)
+	{
+		return ProjectileEntry.builder()
+			.projectileId(projectileId)
+			.customName("Projectile " + projectileId)
+			.colorRgb(0xFF0000)
+			.colorAlpha(200)
+			.overlayStyle(OverlayStyle.OUTLINE)
+			.build();
+	}
+}
@@ -0,0 +1,166 @@
+package com.projectilehighlighter.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.projectilehighlighter.ProjectileHighlighterConfig.OverlayStyle;
+import com.projectilehighlighter.model.ProjectileEntry;
+import com.projectilehighlighter.model.ProjectileGroup;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GroupJsonAdaptersTest
+{
+	private final Gson gson = GroupJsonAdapters.register(new Gson());
+
+	@Test
+	public void readsBaselineGroupsFile() throws IOException
+	{
+		assertEquals(baselineGroups(), read(resource("baseline-groups.json")));
+	}
+
+	@Test
+	public void writesWhatTheBaselineWrote() throws IOException
+	{
+		StringWriter out = new StringWriter();
+		try (JsonWriter json = gson.newJsonWriter(out))
+		{
+			GroupJsonAdapters.writeGroups(json, baselineGroups());
+		}
+		// Same fields and values; the baseline also pretty printed and escaped HTML characters
+		assertEquals(new JsonParser().parse(resource("baseline-groups.json")), new JsonParser().parse(out.toString()));
+	}
+
+	@Test
+	public void compactFileStaysReadableByReflectiveGson() throws IOException
+	{
+		List<ProjectileGroup> groups = read(resource("baseline-groups.json"));
+		StringWriter out = new StringWriter();
+		try (JsonWriter json = gson.newJsonWriter(out))
+		{
+			GroupJsonAdapters.writeGroups(json, groups);
+		}
+
+		assertEquals(groups, read(out.toString()));
+		// So an older version of the plugin can still load what this one saved
+		List<ProjectileGroup> reflective = new Gson().fromJson(out.toString(), new TypeToken<ArrayList<ProjectileGroup>>(){}.getType());
+		assertEquals(groups, reflective);
+	}
+
+	@Test
+	public void nullFieldsReadAsDefaults() throws IOException
+	{
+		List<ProjectileGroup> groups = read("[{\"id\":null,\"name\":null,\"enabled\":null,\"entries\":null},"
+			+ "{\"id\":\"g\",\"entries\":[{\"projectileId\":null,\"customName\":null,\"colorRgb\":null,"
+			+ "\"colorAlpha\":null,\"overlayStyle\":null}]}]");
+
+		ProjectileGroup nulls = groups.get(0);
+		assertNotNull(nulls.getId());
+		assertNull(nulls.getName());
+		assertTrue(nulls.isEnabled());
+		assertEquals(Collections.emptyList(), nulls.getEntries());
+
+		assertEquals(new ProjectileEntry(0, null, 0, 0, null), groups.get(1).getEntries().get(0));
+	}
+
+	@Test
+	public void missingFieldsReadAsDefaults() throws IOException
+	{
+		List<ProjectileGroup> groups = read("[{},{\"id\":\"g\",\"entries\":[{}]}]");
+
+		ProjectileGroup empty = groups.get(0);
+		assertNotNull(empty.getId());
+		assertNull(empty.getName());
+		assertTrue(empty.isEnabled());
+		assertEquals(Collections.emptyList(), empty.getEntries());
+
+		assertEquals(new ProjectileEntry(0, null, 0, 0, null), groups.get(1).getEntries().get(0));
+	}
+
+	@Test
+	public void unknownFieldsAreSkipped() throws IOException
+	{
+		List<ProjectileGroup> groups = read("[{\"id\":\"g\",\"color\":{\"r\":1,\"g\":[2,3]},\"name\":\"Named\","
+			+ "\"tags\":[\"a\",{\"b\":null}],\"entries\":[{\"projectileId\":7,\"sound\":true,\"colorAlpha\":9}],"
+			+ "\"enabled\":false,\"extra\":null}]");
+
+		assertEquals(Collections.singletonList(new ProjectileGroup("g", "Named", false,
+			new ArrayList<>(Collections.singletonList(new ProjectileEntry(7, null, 0, 9, null))))), groups);
+	}
+
+	@Test
+	public void unknownOverlayStyleReadsAsNone() throws IOException
+	{
+		String json = "[{\"id\":\"g\",\"entries\":[{\"projectileId\":1,\"overlayStyle\":\"SPARKLE\"},"
+			+ "{\"projectileId\":2,\"overlayStyle\":\"hull\"},{\"projectileId\":3,\"overlayStyle\":\"TILE\"}]}]";
+		List<ProjectileEntry> entries = read(json).get(0).getEntries();
+
+		assertNull(entries.get(0).getOverlayStyle());
+		assertNull(entries.get(1).getOverlayStyle());
+		assertEquals(OverlayStyle.TILE, entries.get(2).getOverlayStyle());
+
+		// Same as the reflective Gson the baseline used
+		List<ProjectileGroup> reflective = new Gson().fromJson(json, new TypeToken<ArrayList<ProjectileGroup>>(){}.getType());
+		assertEquals(reflective.get(0).getEntries(), entries);
+	}
+
+	@Test
+	public void nullElementsAreDropped() throws IOException
+	{
+		List<ProjectileGroup> groups = read("[null,{\"id\":\"g\",\"entries\":[null,{\"projectileId\":4}]},null]");
+
+		assertEquals(1, groups.size());
+		assertEquals(Collections.singletonList(new ProjectileEntry(4, null, 0, 0, null)), groups.get(0).getEntries());
+		assertEquals(Collections.emptyList(), read("null"));
+	}
+
+	/**
+	 * What baseline-groups.json and baseline-export.json hold. Both were saved by the
+	 * baseline GroupStorage, before the streaming adapters existed.
+	 */
+	static List<ProjectileGroup> baselineGroups()
+	{
+		return Arrays.asList(
+			new ProjectileGroup("5d0c5b7e-0000-4000-8000-000000000003", null, true, new ArrayList<>()),
+			new ProjectileGroup("5d0c5b7e-0000-4000-8000-000000000002", "Raids é \"quoted\" <b>", false, new ArrayList<>(Arrays.asList(
+				new ProjectileEntry(-1, "Negative ID", 0xFFFFFF, 0, OverlayStyle.FILLED),
+				new ProjectileEntry(Integer.MAX_VALUE, "", 0x123456, 64, OverlayStyle.TILE)))),
+			new ProjectileGroup("5d0c5b7e-0000-4000-8000-000000000001", "Inferno", true, new ArrayList<>(Arrays.asList(
+				new ProjectileEntry(1378, "Jal-Xil ranged", 0x00FF00, 200, OverlayStyle.HULL),
+				new ProjectileEntry(1380, "Jal-Zek magic", 0x0000FF, 255, OverlayStyle.OUTLINE),
+				new ProjectileEntry(1376, null, 0xFF0000, 128, null)))));
+	}
+
+	static String resource(String name) throws IOException
+	{
+		try (InputStream in = GroupJsonAdaptersTest.class.getResourceAsStream(name))
+		{
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			in.transferTo(out);
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private List<ProjectileGroup> read(String json) throws IOException
+	{
+		try (JsonReader reader = gson.newJsonReader(new StringReader(json)))
+		{
+			return GroupJsonAdapters.readGroups(reader);
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package com.projectilehighlighter.util;
+
+import com.google.gson.Gson;
+import com.projectilehighlighter.ProjectileHighlighterConfig.StorageFormat;
+import com.projectilehighlighter.model.ProjectileGroup;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Import and export, which only touch the published snapshot. The storage is never
+ * loaded here, so nothing is written to disk.
+ */
+public class GroupStorageTest
+{
+	private static final String GROUP = "{\"id\":\"g\",\"name\":\"Imported\",\"entries\":[{\"projectileId\":12,\"colorAlpha\":255}]}";
+
+	private final GroupStorage storage = new GroupStorage(new Gson(), StorageFormat.JSON);
+
+	@After
+	public void tearDown()
+	{
+		storage.close();
+	}
+
+	@Test
+	public void importsBaselineExport() throws IOException
+	{
+		assertEquals("Imported 3 group(s)", storage.importFromJson(GroupJsonAdaptersTest.resource("baseline-export.json"), true));
+		assertEquals(GroupJsonAdaptersTest.baselineGroups(), storage.getGroups());
+	}
+
+	@Test
+	public void exportsWhatTheBaselineExported() throws IOException
+	{
+		String baseline = GroupJsonAdaptersTest.resource("baseline-export.json");
+		storage.importFromJson(baseline, true);
+		assertEquals(baseline, storage.exportToJson());
+	}
+
+	@Test
+	public void importsWithFormatAfterGroups()
+	{
+		assertEquals("Imported 1 group(s)", storage.importFromJson(
+			"{\"groups\":[" + GROUP + "],\"version\":1,\"format\":\"projectile-highlighter-groups\"}", true));
+		assertEquals("Imported", storage.getGroups().get(0).getName());
+		assertEquals(12, storage.getGroups().get(0).getEntries().get(0).getProjectileId());
+	}
+
+	@Test
+	public void importSkipsUnknownFields()
+	{
+		assertEquals("Imported 1 group(s)", storage.importFromJson(
+			"{\"source\":{\"app\":[1,2]},\"format\":\"projectile-highlighter-groups\",\"groups\":[" + GROUP + "]}", true));
+	}
+
+	@Test
+	public void mergeSkipsGroupsThatAlreadyExist()
+	{
+		String export = "{\"format\":\"projectile-highlighter-groups\",\"version\":1,\"groups\":[" + GROUP
+			+ ",{\"id\":\"h\",\"name\":\"Other\"}]}";
+		storage.importFromJson("{\"format\":\"projectile-highlighter-groups\",\"groups\":[" + GROUP + "]}", true);
+
+		assertEquals("Added 1 group(s), skipped 1 duplicate(s)", storage.importFromJson(export, false));
+		List<String> ids = new ArrayList<>();
+		for (ProjectileGroup group : storage.getGroups())
+		{
+			ids.add(group.getId());
+		}
+		assertEquals(List.of("g", "h"), ids);
+	}
+
+	@Test
+	public void rejectsBadImports()
+	{
+		// Wrong format, even when it only turns up after the groups
+		assertRejected("{\"groups\":[" + GROUP + "],\"format\":\"something-else\"}");
+		assertRejected("{\"groups\":[" + GROUP + "]}");
+		assertRejected("{\"format\":\"projectile-highlighter-groups\",\"version\":2,\"groups\":[" + GROUP + "]}");
+		assertRejected("{\"format\":\"projectile-highlighter-groups\",\"groups\":[]}");
+		assertRejected("{\"format\":\"projectile-highlighter-groups\",\"groups\":[" + GROUP);
+		assertRejected("[" + GROUP + "]");
+		assertRejected("  ");
+		assertEquals(0, storage.getGroups().size());
+	}
+
+	private void assertRejected(String json)
+	{
+		try
+		{
+			storage.importFromJson(json, true);
+			fail("Accepted " + json);
+		}
+		catch (IllegalArgumentException e)
+		{
+			// Expected
+		}
+	}
+}
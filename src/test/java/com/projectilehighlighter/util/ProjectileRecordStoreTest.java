@@ -0,0 +1,233 @@
+package com.projectilehighlighter.util;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import net.runelite.api.Projectile;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ProjectileRecordStoreTest
+{
+	private static final int LAST_SLOT = ProjectileRecordStore.MIN_CAPACITY - 1;
+
+	@Test
+	public void collidingChainWrapsAroundAndSurvivesDeletes()
+	{
+		// Three projectiles that all want the last slot, so the chain wraps to slots 0 and 1
+		List<Projectile> colliding = projectilesWithHomeSlot(LAST_SLOT, 3);
+		// One whose home is slot 0, which the wrapped chain has already taken
+		Projectile displaced = projectilesWithHomeSlot(0, 1).get(0);
+
+		ProjectileRecordStore store = new ProjectileRecordStore();
+		for (Projectile projectile : colliding)
+		{
+			store.getOrCreate(projectile);
+		}
+		store.getOrCreate(displaced);
+
+		// Deleting the head of the chain has to shift the rest back across the wrap
+		assertTrue(store.remove(colliding.get(0)));
+		assertNull(store.get(colliding.get(0)));
+		assertSame(colliding.get(1), store.get(colliding.get(1)).getProjectile());
+		assertSame(colliding.get(2), store.get(colliding.get(2)).getProjectile());
+		assertSame(displaced, store.get(displaced).getProjectile());
+
+		// And deleting from the middle of what is left
+		assertTrue(store.remove(colliding.get(2)));
+		assertSame(colliding.get(1), store.get(colliding.get(1)).getProjectile());
+		assertSame(displaced, store.get(displaced).getProjectile());
+		assertFalse(store.remove(colliding.get(2)));
+		assertEquals(2, store.size());
+		assertDenseMatches(store, Map.of(colliding.get(1), true, displaced, true));
+	}
+
+	@Test
+	public void rehashKeepsEveryRecord()
+	{
+		ProjectileRecordStore store = new ProjectileRecordStore();
+		Map<Projectile, ProjectileRecordStore.Record> records = new IdentityHashMap<>();
+		// Enough to grow the table several times
+		for (int i = 0; i < ProjectileRecordStore.MIN_CAPACITY * 20; i++)
+		{
+			Projectile projectile = projectile();
+			records.put(projectile, store.getOrCreate(projectile));
+		}
+
+		assertEquals(records.size(), store.size());
+		for (Map.Entry<Projectile, ProjectileRecordStore.Record> entry : records.entrySet())
+		{
+			assertSame(entry.getValue(), store.get(entry.getKey()));
+			assertSame(entry.getValue(), store.getOrCreate(entry.getKey()));
+		}
+		assertEquals(records.size(), store.size());
+	}
+
+	@Test
+	public void removedRecordsAreReusedFromThePool()
+	{
+		ProjectileRecordStore store = new ProjectileRecordStore();
+		Projectile first = projectile();
+		ProjectileRecordStore.Record record = store.getOrCreate(first);
+		record.setProcessed(true);
+		record.setSeenCycle(42);
+
+		assertTrue(store.remove(first));
+
+		Projectile second = projectile();
+		ProjectileRecordStore.Record reused = store.getOrCreate(second);
+		assertSame(record, reused);
+		assertSame(second, reused.getProjectile());
+		assertFalse(reused.isProcessed());
+		assertEquals(0, reused.getSeenCycle());
+		assertNull(reused.getInfo());
+		assertNull(store.get(first));
+	}
+
+	@Test
+	public void denseIndexStaysConsistentAfterRemovals()
+	{
+		ProjectileRecordStore store = new ProjectileRecordStore();
+		Map<Projectile, Boolean> live = new IdentityHashMap<>();
+		List<Projectile> order = new ArrayList<>();
+		for (int i = 0; i < 500; i++)
+		{
+			Projectile projectile = projectile();
+			store.getOrCreate(projectile);
+			live.put(projectile, true);
+			order.add(projectile);
+		}
+
+		Collections.shuffle(order, new Random(7));
+		for (int i = 0; i < order.size(); i++)
+		{
+			Projectile projectile = order.get(i);
+			assertTrue(store.remove(projectile));
+			live.remove(projectile);
+			if (i % 25 == 0)
+			{
+				assertDenseMatches(store, live);
+			}
+		}
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	public void randomOperationsMatchAReferenceMap()
+	{
+		Random random = new Random(1234);
+		ProjectileRecordStore store = new ProjectileRecordStore();
+		Map<Projectile, ProjectileRecordStore.Record> reference = new IdentityHashMap<>();
+		List<Projectile> known = new ArrayList<>();
+
+		for (int step = 0; step < 20000; step++)
+		{
+			if (known.isEmpty() || random.nextInt(3) != 0)
+			{
+				Projectile projectile = random.nextInt(4) == 0 && !known.isEmpty()
+					? known.get(random.nextInt(known.size()))
+					: projectile();
+				ProjectileRecordStore.Record record = store.getOrCreate(projectile);
+				ProjectileRecordStore.Record expected = reference.putIfAbsent(projectile, record);
+				if (expected != null)
+				{
+					assertSame(expected, record);
+				}
+				else
+				{
+					known.add(projectile);
+				}
+			}
+			else
+			{
+				Projectile projectile = known.remove(random.nextInt(known.size()));
+				assertTrue(store.remove(projectile));
+				reference.remove(projectile);
+			}
+
+			assertEquals(reference.size(), store.size());
+		}
+
+		for (Map.Entry<Projectile, ProjectileRecordStore.Record> entry : reference.entrySet())
+		{
+			assertSame(entry.getValue(), store.get(entry.getKey()));
+		}
+		assertDenseMatches(store, reference);
+	}
+
+	/**
+	 * Dense iteration visits exactly the live projectiles, each once, and every
+	 * record found that way is also what the table returns.
+	 */
+	private static void assertDenseMatches(ProjectileRecordStore store, Map<Projectile, ?> live)
+	{
+		assertEquals(live.size(), store.size());
+		Map<Projectile, Boolean> seen = new IdentityHashMap<>();
+		for (int i = 0; i < store.size(); i++)
+		{
+			ProjectileRecordStore.Record record = store.get(i);
+			assertNotNull(record);
+			assertTrue(live.containsKey(record.getProjectile()));
+			assertNull(seen.put(record.getProjectile(), true));
+			assertSame(record, store.get(record.getProjectile()));
+		}
+	}
+
+	private static List<Projectile> projectilesWithHomeSlot(int slot, int count)
+	{
+		List<Projectile> found = new ArrayList<>();
+		while (found.size() < count)
+		{
+			Projectile projectile = projectile();
+			if ((ProjectileRecordStore.hash(projectile) & LAST_SLOT) == slot)
+			{
+				found.add(projectile);
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Stand-in projectile with identity equality; every getter returns zero or null.
+	 */
+	private static Projectile projectile()
+	{
+		return (Projectile) Proxy.newProxyInstance(Projectile.class.getClassLoader(), new Class<?>[]{Projectile.class},
+			(proxy, method, args) ->
+			{
+				switch (method.getName())
+				{
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					case "toString":
+						return "Projectile@" + Integer.toHexString(System.identityHashCode(proxy));
+					default:
+						Class<?> type = method.getReturnType();
+						if (type == int.class)
+						{
+							return 0;
+						}
+						if (type == double.class)
+						{
+							return 0.0;
+						}
+						if (type == boolean.class)
+						{
+							return false;
+						}
+						return null;
+				}
+			});
+	}
+}